@@ -18,12 +18,17 @@
  */
 package ch.njol.skript;
 
+import ch.njol.skript.command.Commands;
 import ch.njol.skript.config.Config;
+import ch.njol.skript.config.EntryNode;
 import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.config.SimpleNode;
+import ch.njol.skript.events.EvtScript;
 import ch.njol.skript.events.bukkit.PreScriptLoadEvent;
+import ch.njol.skript.lang.ParseContext;
 import ch.njol.skript.lang.Section;
+import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.Statement;
 import ch.njol.skript.lang.TriggerItem;
@@ -31,9 +36,12 @@ import ch.njol.skript.lang.TriggerSection;
 import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.log.CountingLogHandler;
 import ch.njol.skript.log.LogEntry;
+import ch.njol.skript.log.ParseLogHandler;
 import ch.njol.skript.log.RetainingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
+import ch.njol.skript.patterns.PatternCompiler;
 import ch.njol.skript.sections.SecLoop;
+import ch.njol.skript.structures.StructEvent;
 import ch.njol.skript.structures.StructOptions.OptionsData;
 import ch.njol.skript.util.ExceptionUtils;
 import ch.njol.skript.util.SkriptColor;
@@ -48,7 +56,9 @@ import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.script.ScriptData;
 import org.skriptlang.skript.lang.structure.Structure;
+import org.skriptlang.skript.lang.structure.StructureInfo;
 
 import java.io.File;
 import java.io.FileFilter;
@@ -64,6 +74,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.BlockingQueue;
@@ -71,7 +82,9 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -518,92 +531,7 @@ public class ScriptLoader {
 				try {
 					openCloseable.open();
 
-					// build sorted list
-					// this nest of pairs is terrible, but we need to keep the reference to the modifiable structures list
-					List<NonNullPair<LoadingScriptInfo, Structure>> pairs = scripts.stream()
-							.flatMap(info -> { // Flatten each entry down to a stream of Script-Structure pairs
-								return info.structures.stream()
-										.map(structure -> new NonNullPair<>(info, structure));
-							})
-							.sorted(Comparator.comparing(pair -> pair.getSecond().getPriority()))
-							.collect(Collectors.toCollection(ArrayList::new));
-
-					// pre-loading
-					pairs.removeIf(pair -> {
-						LoadingScriptInfo loadingInfo = pair.getFirst();
-						Structure structure = pair.getSecond();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.preLoad()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to preLoad a Structure.");
-							loadingInfo.structures.remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
-
-					// TODO in the future, Structure#load/Structure#postLoad should be split across multiple threads if parallel loading is enabled.
-					// However, this is not possible right now as reworks in multiple areas will be needed.
-					// For example, the "Commands" class still uses a static list for currentArguments that is cleared between loads.
-					// Until these reworks happen, limiting main loading to asynchronous (not parallel) is the only choice we have.
-
-					// loading
-					pairs.removeIf(pair -> {
-						LoadingScriptInfo loadingInfo = pair.getFirst();
-						Structure structure = pair.getSecond();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.load()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to load a Structure.");
-							loadingInfo.structures.remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
-
-					// post-loading
-					pairs.removeIf(pair -> {
-						LoadingScriptInfo loadingInfo = pair.getFirst();
-						Structure structure = pair.getSecond();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.postLoad()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to postLoad a Structure.");
-							loadingInfo.structures.remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
+					loadStructures(scripts);
 
 					return scriptInfo;
 				} catch (Exception e) {
@@ -617,6 +545,72 @@ public class ScriptLoader {
 			});
 	}
 
+	/**
+	 * Runs the {@link Structure#preLoad()}, {@link Structure#load()} and {@link Structure#postLoad()} stages
+	 * for the parsed structures of the given scripts, sorted by their priority.
+	 * Structures failing any stage are removed from their script.
+	 * @param scripts The scripts whose structures should be loaded.
+	 */
+	private static void loadStructures(List<LoadingScriptInfo> scripts) {
+		// build sorted list
+		// this nest of pairs is terrible, but we need to keep the reference to the modifiable structures list
+		List<NonNullPair<LoadingScriptInfo, Structure>> pairs = scripts.stream()
+				.flatMap(info -> { // Flatten each entry down to a stream of Script-Structure pairs
+					return info.structures.stream()
+							.map(structure -> new NonNullPair<>(info, structure));
+				})
+				.sorted(Comparator.comparing(pair -> pair.getSecond().getPriority()))
+				.collect(Collectors.toCollection(ArrayList::new));
+
+		// TODO in the future, Structure#load/Structure#postLoad should be split across multiple threads if parallel loading is enabled.
+		// However, this is not possible right now as reworks in multiple areas will be needed.
+		// For example, the "Commands" class still uses a static list for currentArguments that is cleared between loads.
+		// Until these reworks happen, limiting main loading to asynchronous (not parallel) is the only choice we have.
+		runLoadingStage(pairs, Structure::preLoad, "preLoad");
+		runLoadingStage(pairs, Structure::load, "load");
+		runLoadingStage(pairs, Structure::postLoad, "postLoad");
+
+		for (LoadingScriptInfo info : scripts)
+			info.script.getData(StructureSources.class, StructureSources::new).update(info);
+	}
+
+	/**
+	 * Runs a loading stage for the given structures, removing the structures that failed it.
+	 * @param pairs The structures to load, along with the script they belong to.
+	 * @param stage The stage to run.
+	 * @param stageName The name of the stage, used in error messages.
+	 */
+	private static void runLoadingStage(List<NonNullPair<LoadingScriptInfo, Structure>> pairs, Predicate<Structure> stage, String stageName) {
+		ParserInstance parser = getParser();
+		pairs.removeIf(pair -> {
+			LoadingScriptInfo loadingInfo = pair.getFirst();
+			Structure structure = pair.getSecond();
+
+			parser.setActive(loadingInfo.script);
+			parser.setCurrentStructure(structure);
+			parser.setNode(loadingInfo.nodeMap.get(structure));
+
+			boolean failed = true;
+			CountingLogHandler logHandler = new CountingLogHandler(Level.WARNING).start();
+			try {
+				failed = !stage.test(structure);
+			} catch (Exception e) {
+				//noinspection ThrowableNotThrown
+				Skript.exception(e, "An error occurred while trying to " + stageName + " a Structure.");
+			} finally {
+				logHandler.stop();
+				// Structures with errors or warnings are always reloaded, so their messages are shown again
+				if (failed || logHandler.getCount() > 0)
+					loadingInfo.sources.remove(structure);
+			}
+
+			if (failed)
+				loadingInfo.structures.remove(structure);
+			return failed;
+		});
+		parser.setInactive();
+	}
+
 	private static class LoadingScriptInfo {
 
 		public final Script script;
@@ -625,14 +619,74 @@ public class ScriptLoader {
 
 		public final Map<Structure, Node> nodeMap;
 
-		public LoadingScriptInfo(Script script, List<Structure> structures, Map<Structure, Node> nodeMap) {
+		/**
+		 * The source of every structure that has loaded without errors or warnings so far.
+		 * @see StructureSources
+		 */
+		public final Map<Structure, String> sources;
+
+		public LoadingScriptInfo(Script script, List<Structure> structures, Map<Structure, Node> nodeMap, Map<Structure, String> sources) {
 			this.script = script;
 			this.structures = structures;
 			this.nodeMap = nodeMap;
+			this.sources = sources;
 		}
 
 	}
 
+	/**
+	 * Keeps track of the source of the structures of a script,
+	 * allowing a reload to only reload the structures whose source has changed.
+	 * @see #reloadChangedStructures(Script, Config, OpenCloseable)
+	 */
+	private static class StructureSources implements ScriptData {
+
+		/**
+		 * The modifiable list of structures of the script.
+		 */
+		@Nullable
+		private List<Structure> structures;
+
+		/**
+		 * The source of every loaded structure that loaded without errors or warnings.
+		 */
+		private final Map<Structure, String> sources = new HashMap<>();
+
+		private void update(LoadingScriptInfo info) {
+			if (structures == null)
+				structures = info.structures;
+			sources.putAll(info.sources);
+		}
+
+	}
+
+	/**
+	 * Creates a string representing the code of the given node and its child nodes,
+	 * excluding comments, empty lines and line numbers.
+	 * @param node The node.
+	 * @return The source of the node.
+	 */
+	private static String getSource(Node node) {
+		Node currentNode = SkriptLogger.getNode(); // Iterating section nodes changes it
+		StringBuilder builder = new StringBuilder();
+		appendSource(builder, node, 0);
+		SkriptLogger.setNode(currentNode);
+		return builder.toString();
+	}
+
+	private static void appendSource(StringBuilder builder, Node node, int depth) {
+		for (int i = 0; i < depth; i++)
+			builder.append('\t');
+		builder.append(node.getKey());
+		if (node instanceof EntryNode)
+			builder.append(": ").append(((EntryNode) node).getValue());
+		builder.append('\n');
+		if (node instanceof SectionNode) {
+			for (Node child : (SectionNode) node)
+				appendSource(builder, child, depth + 1);
+		}
+	}
+
 	/**
 	 * Creates a script and loads the provided config into it.
 	 * @param config The config to load into a script.
@@ -644,9 +698,9 @@ public class ScriptLoader {
 			throw new IllegalArgumentException("A config must have a file to be loaded.");
 
 		ParserInstance parser = getParser();
-		Map<Structure, Node> nodeMap = new HashMap<>();
 		List<Structure> structures = new ArrayList<>();
 		Script script = new Script(config, structures);
+		LoadingScriptInfo info = new LoadingScriptInfo(script, structures, new HashMap<>(), new HashMap<>());
 		parser.setActive(script);
 
 		try {
@@ -654,32 +708,8 @@ public class ScriptLoader {
 				SkriptConfig.configs.add(config);
 			
 			try (CountingLogHandler ignored = new CountingLogHandler(SkriptLogger.SEVERE).start()) {
-				for (Node node : config.getMainNode()) {
-					if (!(node instanceof SimpleNode) && !(node instanceof SectionNode)) {
-						// unlikely to occur, but just in case
-						Skript.error("could not interpret line as a structure");
-						continue;
-					}
-
-					String line = node.getKey();
-					if (line == null)
-						continue;
-					line = replaceOptions(line); // replace options here before validation
-
-					if (!SkriptParser.validateLine(line))
-						continue;
-
-					if (Skript.logVeryHigh() && !Skript.debug())
-						Skript.info("loading trigger '" + line + "'");
-
-					Structure structure = Structure.parse(line, node, "Can't understand this structure: " + line);
-
-					if (structure == null)
-						continue;
-
-					structures.add(structure);
-					nodeMap.put(structure, node);
-				}
+				for (Node node : config.getMainNode())
+					parseStructure(node, info);
 				
 				if (Skript.logHigh()) {
 					int count = structures.size();
@@ -717,7 +747,47 @@ public class ScriptLoader {
 			}
 		}
 
-		return new LoadingScriptInfo(script, structures, nodeMap);
+		return info;
+	}
+
+	/**
+	 * Parses the given node of a script as a structure, adding it to the given script info if successful.
+	 * The script has to be the active script of the parser.
+	 * @param node The node to parse.
+	 * @param info The script info to add the structure to.
+	 */
+	private static void parseStructure(Node node, LoadingScriptInfo info) {
+		getParser().setNode(node);
+		if (!(node instanceof SimpleNode) && !(node instanceof SectionNode)) {
+			// unlikely to occur, but just in case
+			Skript.error("could not interpret line as a structure");
+			return;
+		}
+
+		String line = node.getKey();
+		if (line == null)
+			return;
+		line = replaceOptions(line); // replace options here before validation
+
+		if (!SkriptParser.validateLine(line))
+			return;
+
+		if (Skript.logVeryHigh() && !Skript.debug())
+			Skript.info("loading trigger '" + line + "'");
+
+		String source = getSource(node);
+		Structure structure;
+		try (CountingLogHandler logHandler = new CountingLogHandler(Level.WARNING).start()) {
+			structure = Structure.parse(line, node, "Can't understand this structure: " + line);
+			if (structure != null && logHandler.getCount() == 0)
+				info.sources.put(structure, source);
+		}
+
+		if (structure == null)
+			return;
+
+		info.structures.add(structure);
+		info.nodeMap.put(structure, node);
 	}
 
 	/*
@@ -845,6 +915,9 @@ public class ScriptLoader {
 
 		ParserInstance parser = getParser();
 
+		// effect commands may use functions of the unloaded scripts
+		Commands.clearEffectCommandCache();
+
 		// initial unload stage
 		for (Script script : scripts) {
 			parser.setActive(script);
@@ -907,18 +980,197 @@ public class ScriptLoader {
 	 * @return Info on the loaded Scripts.
 	 */
 	public static CompletableFuture<ScriptInfo> reloadScripts(Set<Script> scripts, OpenCloseable openCloseable) {
-		unloadScripts(scripts);
-
-		List<Config> configs = new ArrayList<>();
+		// Try to only reload the changed structures of each script first
+		Map<Script, Config> fullReloads = new HashMap<>();
+		List<CompletableFuture<ScriptInfo>> futures = new ArrayList<>();
 		for (Script script : scripts) {
+			File file = script.getConfig().getFile();
 			//noinspection ConstantConditions - getFile should never return null
-			Config config = loadStructure(script.getConfig().getFile());
-			if (config == null)
-				return CompletableFuture.completedFuture(new ScriptInfo());
-			configs.add(config);
+			Config config = file.exists() ? loadStructure(file) : null;
+			CompletableFuture<ScriptInfo> future = config == null ? null : reloadChangedStructures(script, config, openCloseable);
+			if (future != null) {
+				futures.add(future);
+			} else {
+				fullReloads.put(script, config);
+			}
+		}
+
+		if (!fullReloads.isEmpty()) {
+			unloadScripts(fullReloads.keySet());
+			List<Config> configs = fullReloads.values().stream()
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+			futures.add(loadScripts(configs, openCloseable));
+		}
+
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+			.thenApply(unused -> {
+				ScriptInfo scriptInfo = new ScriptInfo();
+				for (CompletableFuture<ScriptInfo> future : futures)
+					scriptInfo.add(future.join());
+				return scriptInfo;
+			});
+	}
+
+	/**
+	 * Reloads only the structures of the given script whose source has changed in the given config,
+	 * keeping all other structures of the script loaded, e.g. without unregistering and registering their events again.
+	 * <p>
+	 * This is only done if all changed structures are events, except for script load and unload events,
+	 * as other structures (e.g. options or functions) may affect the rest of the script or other scripts.
+	 * The script is also reloaded completely if a changed event shares its event with a kept one,
+	 * as the new trigger would otherwise be called after the kept trigger regardless of their order in the file.
+	 * Structures that had errors or warnings when they were loaded are always reloaded, so their messages are shown again.
+	 * Note that the line numbers of the structures that are kept aren't updated.
+	 * @param script The script to reload.
+	 * @param config The new config of the script.
+	 * @param openCloseable An {@link OpenCloseable} that will be called before and after loading the changed structures.
+	 * @return Info on the reloaded script, or null if the script has to be reloaded completely.
+	 */
+	@Nullable
+	private static CompletableFuture<ScriptInfo> reloadChangedStructures(Script script, Config config, OpenCloseable openCloseable) {
+		StructureSources sources = script.getData(StructureSources.class);
+		if (sources == null || sources.structures == null)
+			return null;
+		List<Structure> structures = sources.structures;
+
+		// Keep the structures whose source can still be found in the new config
+		Map<String, List<Structure>> structuresBySource = new HashMap<>();
+		for (Map.Entry<Structure, String> entry : sources.sources.entrySet())
+			structuresBySource.computeIfAbsent(entry.getValue(), source -> new ArrayList<>(1)).add(entry.getKey());
+		Set<Structure> keptStructures = new HashSet<>();
+		List<Node> changedNodes = new ArrayList<>();
+		for (Node node : config.getMainNode()) {
+			List<Structure> unchanged = structuresBySource.get(getSource(node));
+			if (unchanged != null && !unchanged.isEmpty()) {
+				keptStructures.add(unchanged.remove(unchanged.size() - 1));
+			} else {
+				changedNodes.add(node);
+			}
 		}
 
-		return loadScripts(configs, openCloseable);
+		List<Structure> removedStructures = new ArrayList<>();
+		for (Structure structure : structures) {
+			if (!(structure instanceof StructEvent)) {
+				if (!keptStructures.contains(structure))
+					return null;
+				continue;
+			}
+			// Load triggers of scripts are expected to run when the script is reloaded
+			if (((StructEvent) structure).getSkriptEvent() instanceof EvtScript)
+				return null;
+			if (!keptStructures.contains(structure))
+				removedStructures.add(structure);
+		}
+
+		if (removedStructures.isEmpty() && changedNodes.isEmpty())
+			return CompletableFuture.completedFuture(new ScriptInfo(1, structures.size()));
+
+		// Only the event lines are parsed here, the triggers themselves are parsed when the structures are loaded
+		LoadingScriptInfo info = new LoadingScriptInfo(script, new ArrayList<>(), new HashMap<>(), new HashMap<>());
+		ParserInstance parser = getParser();
+		ParseLogHandler log = SkriptLogger.startParseLogHandler(); // not pooled, as it is printed after being stopped
+		parser.setActive(script);
+		try {
+			for (Node node : changedNodes) {
+				if (!(node instanceof SimpleNode) && !(node instanceof SectionNode) || node.getKey() == null)
+					continue;
+				String line = replaceOptions(node.getKey());
+				if (SkriptParser.validateLine(line) && couldBeOtherStructure(line, node instanceof SimpleNode))
+					return null;
+			}
+			for (Node node : changedNodes)
+				parseStructure(node, info);
+		} finally {
+			parser.setInactive();
+			log.stop();
+		}
+
+		// The new structures are registered after the kept ones,
+		// so the order of the triggers can only be kept if they don't share an event with any kept trigger
+		for (Structure structure : info.structures) {
+			if (!(structure instanceof StructEvent)) {
+				log.clear();
+				return null;
+			}
+			SkriptEvent event = ((StructEvent) structure).getSkriptEvent();
+			for (Structure kept : keptStructures) {
+				if (kept instanceof StructEvent && sharesEvent(event, ((StructEvent) kept).getSkriptEvent())) {
+					log.clear();
+					return null;
+				}
+			}
+		}
+
+		Bukkit.getPluginManager().callEvent(new PreScriptLoadEvent(Collections.singletonList(config)));
+
+		// Like a complete reload, the replaced structures are unloaded on the calling thread before loading the new ones
+		parser.setActive(script);
+		try {
+			for (Structure structure : removedStructures)
+				structure.unload();
+			for (Structure structure : removedStructures)
+				structure.postUnload();
+		} finally {
+			parser.setInactive();
+		}
+		structures.removeAll(removedStructures);
+		sources.sources.keySet().removeAll(removedStructures);
+
+		return makeFuture(() -> {
+			try {
+				log.printLog();
+				loadStructures(Collections.singletonList(info));
+				structures.addAll(info.structures);
+				return new ScriptInfo(1, structures.size());
+			} finally {
+				getParser().setInactive();
+			}
+		}, openCloseable);
+	}
+
+	/**
+	 * Checks whether the triggers of the given events may be called for the same event,
+	 * in which case the order in which they are registered matters.
+	 * @param first The first event.
+	 * @param second The second event.
+	 * @return Whether the events share an event class and priority.
+	 */
+	private static boolean sharesEvent(SkriptEvent first, SkriptEvent second) {
+		if (first.getEventPriority() != second.getEventPriority())
+			return false;
+		for (Class<? extends Event> firstClass : first.getEventClasses()) {
+			for (Class<? extends Event> secondClass : second.getEventClasses()) {
+				if (firstClass.isAssignableFrom(secondClass) || secondClass.isAssignableFrom(firstClass))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the given line matches the pattern of any structure other than events,
+	 * without initializing any structures.
+	 * @param line The line of the structure.
+	 * @param simple Whether the line is a simple node, i.e. not a section.
+	 * @return Whether the line may be a structure other than an event.
+	 */
+	private static boolean couldBeOtherStructure(String line, boolean simple) {
+		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		try {
+			for (StructureInfo<? extends Structure> info : Skript.getStructures()) {
+				if (info.getElementClass() == StructEvent.class || info.simple != simple)
+					continue;
+				for (String pattern : info.patterns) {
+					if (PatternCompiler.compile(pattern).match(line, SkriptParser.PARSE_LITERALS, ParseContext.EVENT) != null)
+						return true;
+				}
+			}
+			return false;
+		} finally {
+			log.clear();
+			log.stop();
+		}
 	}
 	
 	/*
@@ -980,6 +1232,7 @@ public class ScriptLoader {
 				if (Skript.debug() || subNode.debug())
 					Skript.debug(SkriptColor.replaceColorChar(parser.getIndentation() + stmt.toString(null, true)));
 
+				stmt.setLineNumber(subNode.getLine());
 				items.add(stmt);
 			} else if (subNode instanceof SectionNode) {
 				TypeHints.enterScope(); // Begin conditional type hints
@@ -991,6 +1244,7 @@ public class ScriptLoader {
 				if (Skript.debug() || subNode.debug())
 					Skript.debug(SkriptColor.replaceColorChar(parser.getIndentation() + section.toString(null, true)));
 
+				section.setLineNumber(subNode.getLine());
 				items.add(section);
 
 				// Destroy these conditional type hints
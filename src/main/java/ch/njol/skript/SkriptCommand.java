@@ -18,10 +18,13 @@
  */
 package ch.njol.skript;
 
+import ch.njol.skript.ScriptLoader.ScriptInfo;
 import ch.njol.skript.aliases.Aliases;
 import ch.njol.skript.command.CommandHelp;
+import ch.njol.skript.command.Commands;
 import ch.njol.skript.doc.Documentation;
 import ch.njol.skript.doc.HTMLGenerator;
+import ch.njol.skript.lang.function.FunctionCache;
 import ch.njol.skript.localization.ArgsMessage;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.PluralizingArgsMessage;
@@ -30,9 +33,17 @@ import ch.njol.skript.log.TimingLogHandler;
 import ch.njol.skript.test.runner.SkriptTestEvent;
 import ch.njol.skript.test.runner.TestMode;
 import ch.njol.skript.test.runner.TestTracker;
+import ch.njol.skript.timings.LatencyHistogram;
+import ch.njol.skript.timings.SkriptProfiler;
+import ch.njol.skript.timings.SkriptProfiler.Profile;
+import ch.njol.skript.timings.SkriptProfiler.ProfileEntry;
+import ch.njol.skript.util.AsyncEffect;
 import ch.njol.skript.util.ExceptionUtils;
 import ch.njol.skript.util.FileUtils;
 import ch.njol.skript.util.SkriptColor;
+import ch.njol.skript.variables.SQLStorage;
+import ch.njol.skript.variables.Variables;
+import ch.njol.skript.variables.VariablesStorage;
 import ch.njol.util.OpenCloseable;
 import ch.njol.util.StringUtils;
 import org.bukkit.Bukkit;
@@ -47,11 +58,15 @@ import org.skriptlang.skript.lang.script.Script;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
+import java.text.SimpleDateFormat;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public class SkriptCommand implements CommandExecutor {
@@ -78,6 +93,10 @@ public class SkriptCommand implements CommandExecutor {
 			.add("check")
 			.add("changes")
 			.add("download")
+		).add(new CommandHelp("profile", SkriptColor.DARK_CYAN)
+			.add("start")
+			.add("stop")
+			.add("report")
 		).add("info"
 		).add("help");
 
@@ -161,6 +180,7 @@ public class SkriptCommand implements CommandExecutor {
 				else if (args[1].equalsIgnoreCase("config")) {
 					reloading(sender, "main config");
 					SkriptConfig.load();
+					Commands.clearEffectCommandCache();
 					reloaded(sender, logHandler, timingLogHandler, "main config");
 				}
 
@@ -168,6 +188,7 @@ public class SkriptCommand implements CommandExecutor {
 					reloading(sender, "aliases");
 					Aliases.clear();
 					Aliases.load();
+					Commands.clearEffectCommandCache();
 					reloaded(sender, logHandler, timingLogHandler, "aliases");
 				}
 
@@ -185,10 +206,10 @@ public class SkriptCommand implements CommandExecutor {
 						reloading(sender, "script", scriptFile.getName());
 
 						Script script = ScriptLoader.getScript(scriptFile);
-						if (script != null)
-							ScriptLoader.unloadScript(script);
-						ScriptLoader.loadScripts(scriptFile, OpenCloseable.combine(logHandler, timingLogHandler))
-							.thenAccept(scriptInfo ->
+						CompletableFuture<ScriptInfo> future = script != null
+							? ScriptLoader.reloadScript(script, OpenCloseable.combine(logHandler, timingLogHandler))
+							: ScriptLoader.loadScripts(scriptFile, OpenCloseable.combine(logHandler, timingLogHandler));
+						future.thenAccept(scriptInfo ->
 								reloaded(sender, logHandler, timingLogHandler, "script", scriptFile.getName())
 							);
 					} else {
@@ -360,6 +381,28 @@ public class SkriptCommand implements CommandExecutor {
 				}
 			}
 
+			else if (args[0].equalsIgnoreCase("profile")) {
+				if (args[1].equalsIgnoreCase("start")) {
+					SkriptProfiler.start();
+					info(sender, "profile.started");
+				} else if (args[1].equalsIgnoreCase("stop")) {
+					Profile profile = SkriptProfiler.stop();
+					if (profile == null) {
+						error(sender, "profile.not running");
+						return true;
+					}
+					info(sender, "profile.stopped");
+					reportProfile(sender, profile);
+				} else if (args[1].equalsIgnoreCase("report")) {
+					Profile profile = SkriptProfiler.getProfile();
+					if (profile == null) {
+						error(sender, "profile.nothing profiled");
+						return true;
+					}
+					reportProfile(sender, profile);
+				}
+			}
+
 			else if (args[0].equalsIgnoreCase("info")) {
 				info(sender, "info.aliases");
 				info(sender, "info.documentation");
@@ -462,6 +505,67 @@ public class SkriptCommand implements CommandExecutor {
 		return true;
 	}
 	
+	private static final int PROFILE_REPORT_ENTRIES = 10;
+
+	/**
+	 * Shows the items that took the most time in the given profile
+	 * and exports its call tree for flame graph tools to the profiles folder.
+	 */
+	private static void reportProfile(CommandSender sender, Profile profile) {
+		info(sender, "profile.report.title", StringUtils.toString(profile.getDuration() / 1_000_000_000.0, 2));
+		for (ProfileEntry entry : profile.getTopEntries(PROFILE_REPORT_ENTRIES)) {
+			info(sender, "profile.report.entry", entry.getLabel(),
+				StringUtils.toString(entry.getSelfTime() / 1_000_000.0, 2),
+				StringUtils.toString(entry.getTime() / 1_000_000.0, 2),
+				entry.getCount(), entry.getAllocated() / 1024);
+		}
+
+		long cachedEffectCommands = Commands.getCachedEffectCommands();
+		long effectCommands = cachedEffectCommands + Commands.getParsedEffectCommands();
+		if (effectCommands > 0)
+			info(sender, "profile.report.effect commands", cachedEffectCommands, effectCommands);
+
+		Collection<FunctionCache> caches = FunctionCache.getCaches();
+		if (!caches.isEmpty()) {
+			info(sender, "profile.report.cached functions");
+			for (FunctionCache cache : caches) {
+				long hits = cache.getHits();
+				long calls = hits + cache.getMisses();
+				info(sender, "profile.report.cached function", cache.getName(),
+					StringUtils.toString(calls == 0 ? 0 : 100.0 * hits / calls, 1), hits, calls, cache.size());
+			}
+		}
+
+		for (VariablesStorage storage : Variables.getStorages()) {
+			if (!(storage instanceof SQLStorage))
+				continue;
+			long lag = ((SQLStorage) storage).getReplicationLag();
+			if (lag != -1)
+				info(sender, "profile.report.replication lag", storage.getDatabaseName(), StringUtils.toString(lag / 1000.0, 2));
+		}
+
+		Map<Class<? extends AsyncEffect>, LatencyHistogram> latencies = AsyncEffect.getLatencies();
+		if (!latencies.isEmpty()) {
+			info(sender, "profile.report.async effects");
+			for (Map.Entry<Class<? extends AsyncEffect>, LatencyHistogram> entry : latencies.entrySet()) {
+				LatencyHistogram histogram = entry.getValue();
+				info(sender, "profile.report.async effect", entry.getKey().getSimpleName(), histogram.getCount(),
+					StringUtils.toString(histogram.getPercentile(0.5) / 1_000_000.0, 2),
+					StringUtils.toString(histogram.getPercentile(0.99) / 1_000_000.0, 2));
+			}
+		}
+
+		File folder = new File(Skript.getInstance().getDataFolder(), "profiles");
+		File file = new File(folder, "profile-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date()) + ".folded");
+		try {
+			folder.mkdirs();
+			profile.exportFlameGraph(file);
+			info(sender, "profile.report.exported", file.getPath());
+		} catch (IOException e) {
+			error(sender, "profile.report.export error", ExceptionUtils.toString(e));
+		}
+	}
+
 	private static final ArgsMessage m_invalid_script = new ArgsMessage(CONFIG_NODE + ".invalid script");
 	private static final ArgsMessage m_invalid_folder = new ArgsMessage(CONFIG_NODE + ".invalid folder");
 	
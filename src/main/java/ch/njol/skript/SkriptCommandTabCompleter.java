@@ -47,6 +47,10 @@ public class SkriptCommandTabCompleter implements TabCompleter {
 			options.add("check");
 			options.add("changes");
 			options.add("download");
+		} else if (args[0].equalsIgnoreCase("profile") && args.length == 2) {
+			options.add("start");
+			options.add("stop");
+			options.add("report");
 		} else if (args[0].matches("(?i)(reload|disable|enable)") && args.length >= 2) {
 			File scripts = Skript.getInstance().getScriptsFolder();
 			String scriptsPathString = scripts.toPath().toString();
@@ -116,6 +120,7 @@ public class SkriptCommandTabCompleter implements TabCompleter {
 			options.add("enable");
 			options.add("disable");
 			options.add("update");
+			options.add("profile");
 			options.add("info");
 			if (Documentation.getDocsTemplateDirectory().exists())
 				options.add("gen-docs");
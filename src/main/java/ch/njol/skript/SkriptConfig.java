@@ -328,6 +328,21 @@ public class SkriptConfig {
 
 	public static final Option<Timespan> longParseTimeWarningThreshold = new Option<>("long parse time warning threshold", new Timespan(0));
 
+	public static final Option<Integer> functionCacheSize = new Option<>("function cache size", 1000, s -> {
+		try {
+			int size = Integer.parseInt(s);
+			if (size > 0)
+				return size;
+			Skript.warning("The function cache size must be at least 1, using the default size of 1000 instead");
+		} catch (NumberFormatException e) {
+			Skript.error("Invalid function cache size: " + s);
+		}
+		return null;
+	}).optional(true);
+
+	public static final Option<Timespan> functionCacheLifetime = new Option<>("function cache lifetime", new Timespan(0))
+			.optional(true);
+
 	/**
 	 * This should only be used in special cases
 	 */
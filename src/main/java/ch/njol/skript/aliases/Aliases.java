@@ -34,6 +34,9 @@ import ch.njol.skript.localization.Message;
 import ch.njol.skript.localization.Noun;
 import ch.njol.skript.localization.RegexMessage;
 import ch.njol.skript.log.BlockingLogHandler;
+import ch.njol.skript.log.LogEntry;
+import ch.njol.skript.log.RetainingLogHandler;
+import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.util.EnchantmentType;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.Version;
@@ -43,7 +46,7 @@ import org.bukkit.NamespacedKey;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.FileSystem;
@@ -51,11 +54,20 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public abstract class Aliases {
 
@@ -228,10 +240,73 @@ public abstract class Aliases {
 		return t;
 	}
 	
-	private final static RegexMessage p_any = new RegexMessage("aliases.any", "", " (.+)", Pattern.CASE_INSENSITIVE);
-	private final static RegexMessage p_every = new RegexMessage("aliases.every", "", " (.+)", Pattern.CASE_INSENSITIVE);
-	private final static RegexMessage p_of_every = new RegexMessage("aliases.of every", "(\\d+) ", " (.+)", Pattern.CASE_INSENSITIVE);
-	private final static RegexMessage p_of = new RegexMessage("aliases.of", "(\\d+) (?:", " )?(.+)", Pattern.CASE_INSENSITIVE);
+	final static RegexMessage p_any = new RegexMessage("aliases.any", "", " (.+)", Pattern.CASE_INSENSITIVE);
+	final static RegexMessage p_every = new RegexMessage("aliases.every", "", " (.+)", Pattern.CASE_INSENSITIVE);
+	final static RegexMessage p_of_every = new RegexMessage("aliases.of every", "(\\d+) ", " (.+)", Pattern.CASE_INSENSITIVE);
+	final static RegexMessage p_of = new RegexMessage("aliases.of", "(\\d+) (?:", " )?(.+)", Pattern.CASE_INSENSITIVE);
+
+	/*
+	 * All of the patterns above require a space, and the amount patterns also require a leading digit,
+	 * so most item types (e.g. 'stone' or 'diamond sword') can skip some or all of them.
+	 * These checks only skip patterns that can't match, so the results are the same,
+	 * which AliasesPatternsTest checks for every language.
+	 */
+
+	private static boolean startsWithDigit(String s) {
+		return !s.isEmpty() && s.charAt(0) >= '0' && s.charAt(0) <= '9';
+	}
+
+	static boolean isNumber(String s) {
+		if (s.isEmpty())
+			return false;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9')
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Parses the amount and 'every' prefix of an item type, e.g. '5 of every' or 'every'.
+	 *
+	 * @param s The item type.
+	 * @param t The item type to set the parsed amount and whether it means every item on.
+	 * @return The rest of the item type after the prefix, or null if it has no prefix.
+	 */
+	@Nullable
+	static String parsePrefix(String s, ItemType t) {
+		if (s.indexOf(' ') == -1)
+			return null;
+		Matcher m;
+		if (startsWithDigit(s)) {
+			if ((m = p_of_every.matcher(s)).matches()) {
+				t.setAmount(Utils.parseInt("" + m.group(1)));
+				t.setAll(true);
+				return "" + m.group(m.groupCount());
+			}
+			if ((m = p_of.matcher(s)).matches()) {
+				t.setAmount(Utils.parseInt("" + m.group(1)));
+				return "" + m.group(m.groupCount());
+			}
+		}
+		if ((m = p_every.matcher(s)).matches()) {
+			t.setAll(true);
+			return "" + m.group(m.groupCount());
+		}
+		return null;
+	}
+
+	/**
+	 * @param lc The lowercase alias.
+	 * @return The alias without its 'any' prefix, or the given alias if it has none.
+	 */
+	static String stripAnyPrefix(String lc) {
+		if (lc.indexOf(' ') == -1)
+			return lc;
+		Matcher m = p_any.matcher(lc);
+		return m.matches() ? "" + m.group(m.groupCount()) : lc;
+	}
 	
 	/**
 	 * Parses an ItemType.
@@ -249,17 +324,9 @@ public abstract class Aliases {
 		
 		final ItemType t = new ItemType();
 		
-		Matcher m;
-		if ((m = p_of_every.matcher(s)).matches()) {
-			t.setAmount(Utils.parseInt("" + m.group(1)));
-			t.setAll(true);
-			s = "" + m.group(m.groupCount());
-		} else if ((m = p_of.matcher(s)).matches()) {
-			t.setAmount(Utils.parseInt("" + m.group(1)));
-			s = "" + m.group(m.groupCount());
-		} else if ((m = p_every.matcher(s)).matches()) {
-			t.setAll(true);
-			s = "" + m.group(m.groupCount());
+		String withoutPrefix = parsePrefix(s, t);
+		if (withoutPrefix != null) {
+			s = withoutPrefix;
 		} else {
 			final int l = s.length();
 			s = Noun.stripIndefiniteArticle(s);
@@ -311,7 +378,7 @@ public abstract class Aliases {
 		if (s.isEmpty()) {
 			t.add(new ItemData(Material.AIR));
 			return t;
-		} else if (s.matches("\\d+")) {
+		} else if (isNumber(s)) {
 			return null;
 		} else if ((i = getAlias(s)) != null) {
 			for (ItemData d : i) {
@@ -333,11 +400,7 @@ public abstract class Aliases {
 	@Nullable
 	private static ItemType getAlias(final String s) {
 		ItemType i;
-		String lc = "" + s.toLowerCase(Locale.ENGLISH);
-		final Matcher m = p_any.matcher(lc);
-		if (m.matches()) {
-			lc = "" + m.group(m.groupCount());
-		}
+		String lc = stripAnyPrefix("" + s.toLowerCase(Locale.ENGLISH));
 		if ((i = getAlias_i(lc)) != null)
 			return i.clone();
 		boolean b;
@@ -463,25 +526,105 @@ public abstract class Aliases {
 	
 	/**
 	 * Loads aliases from given directory.
+	 * <p>
+	 * The files are read and tokenized on other threads while the aliases of earlier files are loaded,
+	 * but their log messages are printed and their aliases loaded on the calling thread in the usual order,
+	 * as files may use variations and aliases defined in earlier files.
 	 * @param dir Directory of aliases.
 	 * @throws IOException If something goes wrong with loading.
 	 */
 	public static void loadDirectory(Path dir) throws IOException {
+		List<Path> files = new ArrayList<>();
+		collectAliasFiles(dir, files);
+		if (files.size() <= 1) {
+			for (Path f : files)
+				load(f);
+			return;
+		}
+
+		int threads = Math.min(files.size(), Runtime.getRuntime().availableProcessors());
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "Skript aliases reader");
+			thread.setDaemon(true);
+			return thread;
+		});
 		try {
-			Files.list(dir).sorted().forEach((f) -> {
-				assert f != null;
+			List<Future<ReadAliasFile>> futures = new ArrayList<>(files.size());
+			for (Path f : files)
+				futures.add(executor.submit(() -> new ReadAliasFile(f)));
+			for (Future<ReadAliasFile> future : futures)
+				future.get().load();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while loading aliases from " + dir);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw (RuntimeException) cause; // The reader only throws unchecked exceptions
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * An alias file read and tokenized on another thread, together with the messages logged while doing so.
+	 * The threads are only used for one {@link #loadDirectory(Path)}, so their parser instances don't outlive it.
+	 */
+	private static final class ReadAliasFile {
+
+		@Nullable
+		private final Config config;
+		@Nullable
+		private final IOException exception;
+		private final Collection<LogEntry> log;
+
+		ReadAliasFile(Path f) {
+			Config config = null;
+			IOException exception = null;
+			try (RetainingLogHandler log = SkriptLogger.startRetainingLog()) {
 				try {
-					String name = f.getFileName().toString();
-					if (Files.isDirectory(f) && !name.startsWith("."))
-						loadDirectory(f);
-					else if (name.endsWith(".sk"))
-						load(f);
+					config = new Config(f, false, false, "=");
 				} catch (IOException e) {
-					throw new UncheckedIOException(e);
+					exception = e;
 				}
-			});
-		} catch (UncheckedIOException e) {
-			throw e.getCause();
+				this.log = log.getLog();
+			}
+			this.config = config;
+			this.exception = exception;
+		}
+
+		/**
+		 * Prints the retained log messages and loads the aliases of this file, on the calling thread.
+		 * @throws IOException If the file couldn't be read.
+		 */
+		void load() throws IOException {
+			SkriptLogger.logAll(log);
+			if (exception != null)
+				throw exception;
+			assert config != null;
+			Aliases.load(config);
+		}
+
+	}
+
+	/**
+	 * Collects the alias files in the given directory and its subdirectories, in the order they should be loaded.
+	 * @param dir Directory of aliases.
+	 * @param files The list to add the files to.
+	 * @throws IOException If the directory can't be listed.
+	 */
+	private static void collectAliasFiles(Path dir, List<Path> files) throws IOException {
+		List<Path> children;
+		try (Stream<Path> stream = Files.list(dir)) {
+			children = stream.sorted().collect(Collectors.toList());
+		}
+		for (Path f : children) {
+			String name = f.getFileName().toString();
+			if (Files.isDirectory(f) && !name.startsWith("."))
+				collectAliasFiles(f, files);
+			else if (name.endsWith(".sk"))
+				files.add(f);
 		}
 	}
 	
@@ -44,6 +44,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -95,6 +96,14 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 */
 	final ArrayList<ItemData> types = new ArrayList<>(2);
 
+	/**
+	 * Lazily computed set of all materials in {@link #types}, used to reject
+	 * non-matching items in {@link #isOfType(ItemData)} without creating any objects.
+	 * Null when it has not been computed yet or {@link #types} has changed since.
+	 */
+	@Nullable
+	private transient EnumSet<Material> materials;
+
 	/**
 	 * Whether this ItemType represents all types or not.
 	 */
@@ -212,6 +221,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		for (final ItemData d : i) {
 			types.add(d.clone());
 		}
+		materials = null;
 	}
 
 	public ItemType(Block block) {
@@ -272,7 +282,9 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 
 	public boolean isOfType(@Nullable ItemStack item) {
 		if (item == null)
-			return isOfType(Material.AIR, null);
+			return isOfType(Material.AIR);
+		if (!mayBeOfType(item.getType()))
+			return false;
 		return isOfType(new ItemData(item));
 	}
 
@@ -286,18 +298,23 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 
 	public boolean isOfType(@Nullable BlockData blockData) {
 		if (blockData == null)
-			return isOfType(Material.AIR, null);
-
+			return isOfType(Material.AIR);
+		if (!mayBeOfType(blockData.getMaterial()))
+			return false;
 		return isOfType(new ItemData(blockData));
 	}
 
 	public boolean isOfType(@Nullable Block block) {
 		if (block == null)
-			return isOfType(Material.AIR, null);
+			return isOfType(Material.AIR);
+		if (!mayBeOfType(block.getType()))
+			return false;
 		return isOfType(block.getBlockData());
 	}
 
 	public boolean isOfType(ItemData type) {
+		if (!mayBeOfType(type.getType()) && !type.isAnything)
+			return false;
 		for (final ItemData myType : types) {
 			if (myType.equals(type)) {
 				return true;
@@ -307,14 +324,42 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}
 
 	public boolean isOfType(Material id, @Nullable String tags) {
+		if (!mayBeOfType(id))
+			return false;
 		return isOfType(new ItemData(id, tags));
 	}
 
 	public boolean isOfType(Material id) {
-		// TODO avoid object creation
+		if (!mayBeOfType(id))
+			return false;
 		return isOfType(new ItemData(id, (String) null));
 	}
 
+	/**
+	 * Quickly checks whether an item of the given material could possibly be of this type.
+	 * This never creates any objects once the material index has been computed,
+	 * so it can be used to reject items before doing a full {@link ItemData} comparison.
+	 * An {@link ItemData} only ever equals another one with the same material, unless either matches anything.
+	 * @param material The material of an item or block.
+	 * @return False if the item is definitely not of this type, true if it may be.
+	 */
+	private boolean mayBeOfType(Material material) {
+		EnumSet<Material> materials = this.materials;
+		if (materials == null) {
+			materials = EnumSet.noneOf(Material.class);
+			for (ItemData data : types) {
+				if (data.isAnything) {
+					materials = EnumSet.allOf(Material.class);
+					break;
+				}
+				if (data.type != null)
+					materials.add(data.type);
+			}
+			this.materials = materials;
+		}
+		return materials.contains(material);
+	}
+
 	/**
 	 * Checks if this type represents all the items represented by given
 	 * item type. This type may of course also represent other items.
@@ -461,6 +506,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	private void add_(@Nullable ItemData type) {
 		if (type != null) {
 			types.add(type);
+			materials = null;
 			//numItems += type.numItems();
 			modified();
 		}
@@ -468,11 +514,13 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 
 	public void addAll(Collection<ItemData> types) {
 		this.types.addAll(types);
+		materials = null;
 		modified();
 	}
 
 	public void remove(ItemData type) {
 		if (types.remove(type)) {
+			materials = null;
 			//numItems -= type.numItems();
 			modified();
 		}
@@ -480,6 +528,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 
 	void remove(int index) {
 		types.remove(index);
+		materials = null;
 		//numItems -= type.numItems();
 		modified();
 	}
@@ -1170,6 +1219,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	@Override
 	public void deserialize(final Fields fields) throws StreamCorruptedException, NotSerializableException {
 		fields.setFields(this);
+		materials = null;
 
 		// Legacy data (before aliases rework) update
 		if (!types.isEmpty()) {
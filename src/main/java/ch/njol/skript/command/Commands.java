@@ -54,6 +54,7 @@ import java.io.File;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -183,6 +184,44 @@ public abstract class Commands {
 		}
 	};
 
+	private static final int EFFECT_COMMAND_CACHE_SIZE = 100;
+
+	/**
+	 * Recently parsed effect commands, so repeated effect commands don't have to be parsed again.
+	 * Parsing an effect command doesn't depend on its sender, so the effects can be shared.
+	 * Must be cleared whenever something the parsed effects may depend on changes, see {@link #clearEffectCommandCache()}.
+	 */
+	private static final Map<String, Effect> effectCommandCache = new LinkedHashMap<String, Effect>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Effect> eldest) {
+			return size() > EFFECT_COMMAND_CACHE_SIZE;
+		}
+	};
+	private static long parsedEffectCommands, cachedEffectCommands;
+
+	/**
+	 * Clears the parsed effect commands, e.g. because scripts (and their functions) or aliases were unloaded.
+	 */
+	public static void clearEffectCommandCache() {
+		synchronized (effectCommandCache) {
+			effectCommandCache.clear();
+		}
+	}
+
+	/**
+	 * @return how many effect commands had to be parsed.
+	 */
+	public static long getParsedEffectCommands() {
+		return parsedEffectCommands;
+	}
+
+	/**
+	 * @return how many effect commands could reuse an effect that was parsed before.
+	 */
+	public static long getCachedEffectCommands() {
+		return cachedEffectCommands;
+	}
+
 	static boolean handleEffectCommand(CommandSender sender, String command) {
 		if (!(sender instanceof ConsoleCommandSender || sender.hasPermission("skript.effectcommands") || SkriptConfig.allowOpsToUseEffectCommands.value() && sender.isOp()))
 			return false;
@@ -194,10 +233,24 @@ public abstract class Commands {
 				EffectCommandEvent effectCommand = new EffectCommandEvent(sender, command);
 				Bukkit.getPluginManager().callEvent(effectCommand);
 				command = effectCommand.getCommand();
-				ParserInstance parserInstance = ParserInstance.get();
-				parserInstance.setCurrentEvent("effect command", EffectCommandEvent.class);
-				Effect effect = Effect.parse(command, null);
-				parserInstance.deleteCurrentEvent();
+				Effect effect;
+				synchronized (effectCommandCache) {
+					effect = effectCommandCache.get(command);
+				}
+				if (effect != null) {
+					cachedEffectCommands++;
+				} else {
+					ParserInstance parserInstance = ParserInstance.get();
+					parserInstance.setCurrentEvent("effect command", EffectCommandEvent.class);
+					effect = Effect.parse(command, null);
+					parserInstance.deleteCurrentEvent();
+					parsedEffectCommands++;
+					if (effect != null) {
+						synchronized (effectCommandCache) {
+							effectCommandCache.put(command, effect);
+						}
+					}
+				}
 
 				if (effect != null) {
 					log.clear(); // ignore warnings and stuff
@@ -92,27 +92,40 @@ public class Delay extends Effect {
 			
 			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), () -> {
 				Skript.debug(getIndentation() + "... continuing after " + (System.nanoTime() - start) / 1_000_000_000. + "s");
-
-				// Re-set local variables
-				if (localVars != null)
-					Variables.setLocalVariables(event, localVars);
-
-				Object timing = null; // Timings reference must be kept so that it can be stopped after TriggerItem execution
-				if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
-					Trigger trigger = getTrigger();
-					if (trigger != null)
-						timing = SkriptTimings.start(trigger.getDebugLabel());
-				}
-
-				TriggerItem.walk(next, event);
-				Variables.removeLocals(event); // Clean up local vars, we may be exiting now
-
-				SkriptTimings.stop(timing); // Stop timing if it was even started
+				continueWalking(next, event, localVars);
 			}, Math.max(duration.getTicks(), 1)); // Minimum delay is one tick, less than it is useless!
 		}
 		return null;
 	}
 
+	/**
+	 * Continues the execution of a delayed trigger, which has to happen on the main thread.
+	 * This is shared by all syntax elements that delay the execution of triggers,
+	 * so resuming a trigger always restores and cleans up the local variables and timings the same way.
+	 *
+	 * @param next the item to continue the execution at.
+	 * @param event the event of the delayed trigger.
+	 * @param localVars the local variables backed up with {@link Variables#removeLocals(Event)},
+	 *                  or {@code null} if they don't have to be restored.
+	 */
+	public static void continueWalking(TriggerItem next, Event event, @Nullable Object localVars) {
+		// Re-set local variables
+		if (localVars != null)
+			Variables.setLocalVariables(event, localVars);
+
+		Object timing = null; // Timings reference must be kept so that it can be stopped after TriggerItem execution
+		if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
+			Trigger trigger = next.getTrigger();
+			if (trigger != null)
+				timing = SkriptTimings.start(trigger.getDebugLabel());
+		}
+
+		TriggerItem.walk(next, event);
+		Variables.removeLocals(event); // Clean up local vars, we may be exiting now
+
+		SkriptTimings.stop(timing); // Stop timing if it was even started
+	}
+
 	@Override
 	protected void execute(Event event) {
 		throw new UnsupportedOperationException();
@@ -51,12 +51,7 @@ public class IndeterminateDelay extends Delay {
 			
 			Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), () -> {
 				Skript.debug(getIndentation() + "... continuing after " + (System.nanoTime() - start) / 1_000_000_000. + "s");
-
-				// Re-set local variables
-				if (localVars != null)
-					Variables.setLocalVariables(event, localVars);
-
-				TriggerItem.walk(next, event);
+				Delay.continueWalking(next, event, localVars);
 			}, duration.getTicks());
 		}
 
@@ -46,6 +46,7 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -168,10 +169,16 @@ public class ExprEntities extends SimpleExpression<Entity> {
 			if (l.getWorld() == null) // safety
 				return null;
 
-			Collection<Entity> es = l.getWorld().getNearbyEntities(l, d, d, d);
+			Collection<Entity> es;
+			if (returnType == Player.class) {
+				// a world has far fewer players than entities, so there's no need to look at the surrounding chunks
+				es = Collections.unmodifiableCollection(l.getWorld().getPlayers());
+			} else {
+				es = l.getWorld().getNearbyEntities(l, d, d, d);
+			}
 			double radiusSquared = d * d * Skript.EPSILON_MULT;
 			EntityData<?>[] ts = types.getAll(e);
-			return new CheckedIterator<>(es.iterator(), e1 -> {
+			return new CheckedIterator<Entity>(es.iterator(), e1 -> {
 					if (e1 == null || e1.getLocation().distanceSquared(l) > radiusSquared)
 						return false;
 					for (EntityData<?> t : ts) {
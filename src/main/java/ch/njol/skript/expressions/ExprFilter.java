@@ -40,11 +40,14 @@ import org.skriptlang.skript.lang.converter.Converters;
 import ch.njol.skript.util.LiteralUtils;
 import ch.njol.util.Kleenean;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import org.bukkit.event.Event;
 
+import java.lang.reflect.Array;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
@@ -122,8 +125,15 @@ public class ExprFilter extends SimpleExpression<Object> implements InputSource
 
 	@Override
 	protected Object[] get(Event event) {
+		List<Object> values = Lists.newArrayList(iterator(event));
+		Class<?> returnType = getReturnType();
 		try {
-			return Converters.convertStrictly(Iterators.toArray(iterator(event), Object.class), getReturnType());
+			for (Object value : values) {
+				if (!returnType.isInstance(value))
+					return Converters.convertStrictly(values.toArray(), returnType);
+			}
+			// collect straight into an array of the return type instead of copying it again to convert it
+			return values.toArray((Object[]) Array.newInstance(returnType, values.size()));
 		} catch (ClassCastException e1) {
 			return null;
 		}
@@ -30,10 +30,11 @@ import ch.njol.skript.lang.Variable;
 import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.util.LiteralUtils;
 import ch.njol.util.Kleenean;
-import ch.njol.util.Pair;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -100,22 +101,31 @@ public class ExprIndices extends SimpleExpression<String> {
 		}
 
 		if (sort) {
+			// the entries of the list are sorted directly to avoid wrapping every index and value
+			Entry<String, Object>[] entries = variable.entrySet().toArray(new Entry[0]);
+			Comparator<Object> comparator = ExprSortedList.sortingComparator();
 			int direction = descending ? -1 : 1;
-			return variable.entrySet().stream()
-				.map((entry) -> new Pair<>(
-					entry.getKey(),
-					entry.getValue() instanceof Map<?,?>
-						? ((Map<?,?>) entry.getValue()).get(null)
-						: entry.getValue()
-				))
-				.sorted((a, b) -> ExprSortedList.compare(a.getValue(), b.getValue()) * direction)
-				.map(Pair::getKey)
-				.toArray(String[]::new);
+			Arrays.sort(entries, (a, b) -> comparator.compare(getValue(a), getValue(b)) * direction);
+
+			String[] indices = new String[entries.length];
+			for (int i = 0; i < entries.length; i++)
+				indices[i] = entries[i].getKey();
+			return indices;
 		}
 
 		return variable.keySet().toArray(new String[0]);
 	}
 
+	/**
+	 * @return The value of the given list entry, which is the value of the sublist itself for nested lists.
+	 */
+	private static Object getValue(Entry<String, Object> entry) {
+		Object value = entry.getValue();
+		if (value instanceof Map<?, ?>)
+			return ((Map<?, ?>) value).get(null);
+		return value;
+	}
+
 	@Override
 	public boolean isSingle() {
 		return false;
@@ -33,13 +33,16 @@ import ch.njol.skript.util.Utils;
 import ch.njol.util.Kleenean;
 import ch.njol.util.StringUtils;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
 import ch.njol.skript.lang.util.SimpleExpression;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.Collection;
 
 @Name("Nearest Entity")
 @Description("Gets the entity nearest to a location or another entity.")
@@ -60,6 +63,12 @@ public class ExprNearestEntity extends SimpleExpression<Entity> {
 				"[the] %*entitydatas% nearest [to %entity/location%]");
 	}
 
+	private static final double INITIAL_SEARCH_RADIUS = 16;
+	private static final double SEARCH_RADIUS_MULTIPLIER = 4;
+	// Larger areas cover so many chunks that the whole world, which is only filtered by class, isn't much slower to look at,
+	// and rare types wouldn't be found anyway
+	private static final double MAX_SEARCH_RADIUS = 64;
+
 	@SuppressWarnings("NotNullFieldNotInitialized")
 	private EntityData<?>[] entityDatas;
 
@@ -119,12 +128,36 @@ public class ExprNearestEntity extends SimpleExpression<Entity> {
 
 	@Nullable
 	private Entity getNearestEntity(EntityData<?> entityData, Location relativePoint, @Nullable Entity excludedEntity) {
+		World world = relativePoint.getWorld();
+		if (Player.class.isAssignableFrom(entityData.getType()))
+			return getNearestEntity(world.getPlayers(), entityData, relativePoint, excludedEntity, Double.MAX_VALUE);
+
+		// Search increasingly large areas around the point, which only requires looking at the chunks they cover.
+		// An entity found within the radius of an area is the nearest one, as any nearer entity would be in that area too.
+		for (double radius = INITIAL_SEARCH_RADIUS; radius <= MAX_SEARCH_RADIUS; radius *= SEARCH_RADIUS_MULTIPLIER) {
+			Collection<Entity> entities = world.getNearbyEntities(relativePoint, radius, radius, radius);
+			Entity nearestEntity = getNearestEntity(entities, entityData, relativePoint, excludedEntity, radius * radius);
+			if (nearestEntity != null)
+				return nearestEntity;
+		}
+
+		// Nothing nearby, fall back to looking at the whole world
+		return getNearestEntity(world.getEntitiesByClass(entityData.getType()), entityData, relativePoint, excludedEntity, Double.MAX_VALUE);
+	}
+
+	/**
+	 * @param maxDistanceSquared The squared distance entities may at most have from the point
+	 * @return The nearest of the given entities that matches the entity data, if it's within the maximum distance
+	 */
+	@Nullable
+	private static Entity getNearestEntity(Collection<? extends Entity> entities, EntityData<?> entityData,
+										   Location relativePoint, @Nullable Entity excludedEntity, double maxDistanceSquared) {
 		Entity nearestEntity = null;
-		double nearestDistance = -1;
-		for (Entity entity : relativePoint.getWorld().getEntitiesByClass(entityData.getType())) {
+		double nearestDistance = maxDistanceSquared;
+		for (Entity entity : entities) {
 			if (entity != excludedEntity && entityData.isInstance(entity)) {
-				double distance = entity.getLocation().distance(relativePoint);
-				if (nearestEntity == null || distance < nearestDistance) {
+				double distance = entity.getLocation().distanceSquared(relativePoint);
+				if (distance <= nearestDistance && (nearestEntity == null || distance < nearestDistance)) {
 					nearestDistance = distance;
 					nearestEntity = entity;
 				}
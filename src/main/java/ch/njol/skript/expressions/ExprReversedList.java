@@ -30,10 +30,13 @@ import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.util.LiteralUtils;
 import ch.njol.util.Kleenean;
 import ch.njol.util.coll.CollectionUtils;
+import com.google.common.collect.Lists;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Iterator;
 
 @Name("Reversed List")
 @Description("Reverses given list.")
@@ -65,13 +68,19 @@ public class ExprReversedList extends SimpleExpression<Object> {
 	@Override
 	@Nullable
 	protected Object[] get(Event e) {
-		Object[] inputArray = list.getArray(e).clone();
+		Object[] inputArray = list.getArray(e);
 		Object[] array = (Object[]) Array.newInstance(getReturnType(), inputArray.length);
-		System.arraycopy(inputArray, 0, array, 0, inputArray.length);
-		reverse(array);
+		for (int i = 0; i < inputArray.length; i++)
+			array[i] = inputArray[inputArray.length - i - 1];
 		return array;
 	}
 
+	@Override
+	public Iterator<?> iterator(Event event) {
+		// no need to copy the values into a new array when they're only iterated over
+		return Lists.reverse(Arrays.asList(list.getArray(event))).iterator();
+	}
+
 	@Override
 	@Nullable
 	@SuppressWarnings("unchecked")
@@ -86,15 +95,6 @@ public class ExprReversedList extends SimpleExpression<Object> {
 		return null;
 	}
 
-	private void reverse(Object[] array) {
-		for (int i = 0; i < array.length / 2; i++) {
-			Object temp = array[i];
-			int reverse = array.length - i - 1;
-			array[i] = array[reverse];
-			array[reverse] = temp;
-		}
-	}
-
 	@Override
 	public boolean isSingle() {
 		return false;
@@ -30,13 +30,14 @@ import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.util.LiteralUtils;
 import ch.njol.util.Kleenean;
 import ch.njol.util.coll.CollectionUtils;
+import ch.njol.util.coll.iterator.ArrayIterator;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.List;
+import java.util.Iterator;
 
 @Name("Shuffled List")
 @Description("Shuffles given list randomly. This is done by replacing indices by random numbers in resulting list.")
@@ -68,12 +69,17 @@ public class ExprShuffledList extends SimpleExpression<Object> {
 	@Override
 	@Nullable
 	protected Object[] get(Event e) {
-		Object[] origin = list.getArray(e).clone();
-		List<Object> shuffled = Arrays.asList(origin); // Not yet shuffled...
-		Collections.shuffle(shuffled);
-
+		Object[] origin = list.getArray(e);
 		Object[] array = (Object[]) Array.newInstance(getReturnType(), origin.length);
-		return shuffled.toArray(array);
+		System.arraycopy(origin, 0, array, 0, origin.length);
+		Collections.shuffle(Arrays.asList(array)); // Shuffles the array in place
+		return array;
+	}
+
+	@Override
+	public Iterator<?> iterator(Event event) {
+		// the shuffled array is already a new copy, it doesn't have to be copied again by getArray
+		return new ArrayIterator<>(get(event));
 	}
 
 	@Override
@@ -30,6 +30,7 @@ import ch.njol.skript.lang.util.SimpleExpression;
 import ch.njol.skript.util.LiteralUtils;
 import ch.njol.util.Kleenean;
 import ch.njol.util.coll.CollectionUtils;
+import ch.njol.util.coll.iterator.ArrayIterator;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 import org.skriptlang.skript.lang.comparator.Comparator;
@@ -37,6 +38,7 @@ import org.skriptlang.skript.lang.comparator.Comparators;
 import org.skriptlang.skript.lang.comparator.Relation;
 
 import java.lang.reflect.Array;
+import java.util.Iterator;
 
 @Name("Sorted List")
 @Description("Sorts given list in natural order. All objects in list must be comparable; if they're not, this expression will return nothing.")
@@ -70,24 +72,74 @@ public class ExprSortedList extends SimpleExpression<Object> {
 	protected Object[] get(Event event) {
 		try {
 			return list.stream(event)
-					.sorted(ExprSortedList::compare)
+					.sorted(sortingComparator())
 					.toArray();
 		} catch (IllegalArgumentException | ClassCastException e) {
 			return (Object[]) Array.newInstance(getReturnType(), 0);
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	public static <A, B> int compare(A a, B b) throws IllegalArgumentException, ClassCastException {
+		return compare(a, b, null);
+	}
+
+	/**
+	 * The implementation of {@link #compare(Object, Object)}, shared with {@link SortingComparator}.
+	 * @param cache The comparator remembering the last looked up {@link Comparator}, or null to always look it up.
+	 */
+	@SuppressWarnings("unchecked")
+	private static int compare(Object a, Object b, @Nullable SortingComparator cache) throws IllegalArgumentException, ClassCastException {
 		if (a instanceof String && b instanceof String)
 			return Relation.get(((String) a).compareToIgnoreCase((String) b)).getRelation();
-		Comparator<A, B> comparator = Comparators.getComparator((Class<A>) a.getClass(), (Class<B>) b.getClass());
-        if (comparator != null && comparator.supportsOrdering())
+		Class<Object> firstType = (Class<Object>) a.getClass();
+		Class<Object> secondType = (Class<Object>) b.getClass();
+		Comparator<Object, Object> comparator = cache == null
+			? Comparators.getComparator(firstType, secondType)
+			: cache.getComparator(firstType, secondType);
+		if (comparator != null && comparator.supportsOrdering())
 			return comparator.compare(a, b).getRelation();
 		if (!(a instanceof Comparable))
 			throw new IllegalArgumentException("Cannot compare " + a.getClass());
-		return ((Comparable<B>) a).compareTo(b);
-    }
+		return ((Comparable<Object>) a).compareTo(b);
+	}
+
+	/**
+	 * Creates a comparator that orders objects like {@link #compare(Object, Object)}.
+	 * The returned comparator remembers the last looked up {@link Comparator},
+	 * so sorting a list of objects of the same type only looks it up once instead of for every comparison.
+	 * It is not thread-safe and should only be used for a single sort.
+	 * @return A new comparator for sorting.
+	 */
+	public static java.util.Comparator<Object> sortingComparator() {
+		return new SortingComparator();
+	}
+
+	private static final class SortingComparator implements java.util.Comparator<Object> {
+
+		private @Nullable Class<?> lastFirstType, lastSecondType;
+		private @Nullable Comparator<Object, Object> lastComparator;
+
+		@Override
+		public int compare(Object a, Object b) {
+			return ExprSortedList.compare(a, b, this);
+		}
+
+		private @Nullable Comparator<Object, Object> getComparator(Class<Object> firstType, Class<Object> secondType) {
+			if (firstType != lastFirstType || secondType != lastSecondType) {
+				lastComparator = Comparators.getComparator(firstType, secondType);
+				lastFirstType = firstType;
+				lastSecondType = secondType;
+			}
+			return lastComparator;
+		}
+
+	}
+
+	@Override
+	public Iterator<?> iterator(Event event) {
+		// the sorted array is already a new copy, it doesn't have to be copied again by getArray
+		return new ArrayIterator<>(get(event));
+	}
 
 	@Override
 	@Nullable
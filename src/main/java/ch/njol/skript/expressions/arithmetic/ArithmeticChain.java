@@ -54,7 +54,14 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 	private final Operator operator;
 	private final Class<? extends T> returnType;
 	@Nullable
-	private OperationInfo<? extends L, ? extends R, ? extends T> operationInfo;
+	private final OperationInfo<? extends L, ? extends R, ? extends T> operationInfo;
+
+	/**
+	 * The operation info that was last looked up at runtime, along with the operand classes it was looked up for.
+	 * Used when the operation can't be determined while parsing, as the operands tend to have the same classes every time.
+	 */
+	@Nullable
+	private volatile CachedOperationInfo<L, R, T> cachedOperationInfo;
 
 	public ArithmeticChain(ArithmeticGettable<L> left, Operator operator, ArithmeticGettable<R> right, @Nullable OperationInfo<L, R, T> operationInfo) {
 		this.left = left;
@@ -82,12 +89,23 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		if (leftClass == Object.class && rightClass == Object.class)
 			return null;
 
-		if (left == null && leftClass == Object.class) {
-			operationInfo = lookupOperationInfo(rightClass, OperationInfo::getRight);
-		} else if (right == null && rightClass == Object.class) {
-			operationInfo = lookupOperationInfo(leftClass, OperationInfo::getLeft);
-		} else if (operationInfo == null) {
-			operationInfo = Arithmetics.lookupOperationInfo(operator, leftClass, rightClass, returnType);
+		OperationInfo<? extends L, ? extends R, ? extends T> operationInfo = this.operationInfo;
+		boolean leftAnchor = left == null && leftClass == Object.class;
+		boolean rightAnchor = !leftAnchor && right == null && rightClass == Object.class;
+		if (leftAnchor || rightAnchor || operationInfo == null) {
+			CachedOperationInfo<L, R, T> cached = cachedOperationInfo;
+			if (cached != null && cached.leftClass == leftClass && cached.rightClass == rightClass) {
+				operationInfo = cached.operationInfo;
+			} else {
+				if (leftAnchor) {
+					operationInfo = lookupOperationInfo(rightClass, OperationInfo::getRight);
+				} else if (rightAnchor) {
+					operationInfo = lookupOperationInfo(leftClass, OperationInfo::getLeft);
+				} else {
+					operationInfo = Arithmetics.lookupOperationInfo(operator, leftClass, rightClass, returnType);
+				}
+				cachedOperationInfo = new CachedOperationInfo<>(leftClass, rightClass, operationInfo);
+			}
 		}
 
 		if (operationInfo == null)
@@ -126,6 +144,21 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		return returnType;
 	}
 
+	private static final class CachedOperationInfo<L, R, T> {
+
+		private final Class<?> leftClass, rightClass;
+		@Nullable
+		private final OperationInfo<? extends L, ? extends R, ? extends T> operationInfo;
+
+		private CachedOperationInfo(Class<?> leftClass, Class<?> rightClass,
+									@Nullable OperationInfo<? extends L, ? extends R, ? extends T> operationInfo) {
+			this.leftClass = leftClass;
+			this.rightClass = rightClass;
+			this.operationInfo = operationInfo;
+		}
+
+	}
+
 	@Nullable
 	@SuppressWarnings("unchecked")
 	public static <L, R, T> ArithmeticGettable<T> parse(List<Object> chain) {
@@ -149,6 +182,11 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 						return null;
 				}
 
+				// calculate chains of numbers without boxing every intermediate result
+				NumericArithmeticChain numericChain = NumericArithmeticChain.of(left, operator, right, operationInfo);
+				if (numericChain != null)
+					return (ArithmeticGettable<T>) numericChain;
+
 				return new ArithmeticChain<>(left, operator, right, operationInfo);
 			}
 		}
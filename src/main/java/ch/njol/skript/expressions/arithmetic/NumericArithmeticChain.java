@@ -0,0 +1,165 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.expressions.arithmetic;
+
+import org.bukkit.event.Event;
+import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.arithmetic.Arithmetics;
+import org.skriptlang.skript.lang.arithmetic.OperationInfo;
+import org.skriptlang.skript.lang.arithmetic.Operator;
+
+/**
+ * A chain of arithmetic operations between numbers, used instead of an {@link ArithmeticChain}
+ * when all operands are statically known to be numbers and the default number operations apply.
+ * Intermediate results are kept as primitives, so only the operands and the final result are boxed.
+ * The results are identical to those of the number operations registered in
+ * {@link ch.njol.skript.classes.data.DefaultOperations}.
+ */
+public class NumericArithmeticChain implements ArithmeticGettable<Number> {
+
+	private final ArithmeticGettable<? extends Number> left;
+	private final ArithmeticGettable<? extends Number> right;
+	private final Operator operator;
+
+	private NumericArithmeticChain(ArithmeticGettable<? extends Number> left, Operator operator, ArithmeticGettable<? extends Number> right) {
+		this.left = left;
+		this.right = right;
+		this.operator = operator;
+	}
+
+	@Override
+	public Number get(Event event) {
+		Value value = new Value();
+		calculate(event, value);
+		if (value.integer)
+			return value.longValue;
+		return value.doubleValue;
+	}
+
+	/**
+	 * Calculates the result of this chain and stores it in the given value.
+	 */
+	private void calculate(Event event, Value value) {
+		evaluate(left, event, value);
+		boolean leftInteger = value.integer;
+		long leftLong = value.longValue;
+		double leftDouble = value.doubleValue;
+
+		evaluate(right, event, value);
+		boolean integer = leftInteger && value.integer;
+		switch (operator) {
+			case ADDITION:
+				if (integer) {
+					value.setLong(leftLong + value.longValue);
+				} else {
+					value.setDouble(leftDouble + value.doubleValue);
+				}
+				break;
+			case SUBTRACTION:
+				if (integer) {
+					value.setLong(leftLong - value.longValue);
+				} else {
+					value.setDouble(leftDouble - value.doubleValue);
+				}
+				break;
+			case MULTIPLICATION:
+				if (integer) {
+					value.setLong(leftLong * value.longValue);
+				} else {
+					value.setDouble(leftDouble * value.doubleValue);
+				}
+				break;
+			case DIVISION:
+				value.setDouble(leftDouble / value.doubleValue);
+				break;
+			case EXPONENTIATION:
+				value.setDouble(Math.pow(leftDouble, value.doubleValue));
+				break;
+			default:
+				throw new IllegalStateException("Unknown operator " + operator);
+		}
+	}
+
+	private static void evaluate(ArithmeticGettable<? extends Number> gettable, Event event, Value value) {
+		if (gettable instanceof NumericArithmeticChain) {
+			((NumericArithmeticChain) gettable).calculate(event, value);
+			return;
+		}
+		Number number = gettable.get(event);
+		if (number == null) // same fallback as an ArithmeticChain
+			number = Arithmetics.getDefaultValue(Number.class);
+		assert number != null;
+		// see Utils#isInteger
+		value.integer = !(number instanceof Double || number instanceof Float);
+		value.longValue = number.longValue();
+		value.doubleValue = number.doubleValue();
+	}
+
+	@Override
+	public Class<? extends Number> getReturnType() {
+		return Number.class;
+	}
+
+	/**
+	 * Creates a numeric chain for the given operation if both operands are numbers
+	 * and the operation is the default one between numbers.
+	 * @return The numeric chain, or null if the given operation can't be calculated as one.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static NumericArithmeticChain of(ArithmeticGettable<?> left, Operator operator, ArithmeticGettable<?> right,
+									  @Nullable OperationInfo<?, ?, ?> operationInfo) {
+		if (operationInfo == null || !isNumeric(left) || !isNumeric(right))
+			return null;
+		if (operationInfo.getLeft() != Number.class || operationInfo.getRight() != Number.class
+				|| operationInfo.getReturnType() != Number.class)
+			return null;
+		return new NumericArithmeticChain((ArithmeticGettable<? extends Number>) left, operator, (ArithmeticGettable<? extends Number>) right);
+	}
+
+	private static boolean isNumeric(ArithmeticGettable<?> gettable) {
+		if (gettable instanceof NumericArithmeticChain)
+			return true;
+		return gettable instanceof ArithmeticExpressionInfo && Number.class.isAssignableFrom(gettable.getReturnType());
+	}
+
+	/**
+	 * The intermediate result of a calculation.
+	 * The long value is only valid if the value is an integer.
+	 */
+	private static final class Value {
+
+		boolean integer;
+		long longValue;
+		double doubleValue;
+
+		void setLong(long value) {
+			integer = true;
+			longValue = value;
+			doubleValue = value;
+		}
+
+		void setDouble(double value) {
+			integer = false;
+			doubleValue = value;
+		}
+
+	}
+
+}
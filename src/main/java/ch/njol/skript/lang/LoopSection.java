@@ -20,6 +20,7 @@ package ch.njol.skript.lang;
 
 import org.bukkit.event.Event;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -31,7 +32,12 @@ import java.util.WeakHashMap;
  */
 public abstract class LoopSection extends Section implements SyntaxElement, Debuggable, SectionExitHandler {
 
-	protected final transient Map<Event, Long> currentLoopCounter = new WeakHashMap<>();
+	/**
+	 * The loop counter of every event this loop is running in.
+	 * Synchronized as the same loop may run in multiple events at once on different threads,
+	 * e.g. for triggers of events that can be executed asynchronously.
+	 */
+	protected final transient Map<Event, Long> currentLoopCounter = Collections.synchronizedMap(new WeakHashMap<>());
 
 	/**
 	 * @param event The event where the loop is used to return its loop iterations
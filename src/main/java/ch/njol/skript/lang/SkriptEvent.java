@@ -249,6 +249,11 @@ public abstract class SkriptEvent extends Structure {
 
 	/**
 	 * Override this method to allow Skript to not force synchronization.
+	 * <p>
+	 * Triggers of such events are executed on the thread the event was called on,
+	 * possibly on multiple threads at once.
+	 * Skript's per-event state (e.g. local variables, loops and delays) supports this,
+	 * but the syntax elements used in the triggers must still be safe to use off the main thread.
 	 */
 	public boolean canExecuteAsynchronously() {
 		return false;
@@ -174,7 +174,7 @@ public class SkriptParser {
 			Skript.error(defaultError);
 			return null;
 		}
-		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		ParseLogHandler log = SkriptLogger.startPooledParseLogHandler();
 		try {
 			T element = new SkriptParser(expr).parse(source);
 			if (element != null) {
@@ -201,7 +201,7 @@ public class SkriptParser {
 			return null;
 		}
 
-		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		ParseLogHandler log = SkriptLogger.startPooledParseLogHandler();
 		T element;
 		try {
 			element = new SkriptParser(expr, PARSE_LITERALS, parseContext).parse(source);
@@ -218,7 +218,7 @@ public class SkriptParser {
 
 	@Nullable
 	private <T extends SyntaxElement> T parse(Iterator<? extends SyntaxElementInfo<? extends T>> source) {
-		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		ParseLogHandler log = SkriptLogger.startPooledParseLogHandler();
 		try {
 			while (source.hasNext()) {
 				SyntaxElementInfo<? extends T> info = source.next();
@@ -339,7 +339,7 @@ public class SkriptParser {
 					expr.startsWith("(") && expr.endsWith(")") &&
 					next(expr, 0, context) == expr.length())
 			return new SkriptParser(this, "" + expr.substring(1, expr.length() - 1)).parseSingleExpr(allowUnparsedLiteral, error, types);
-		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		ParseLogHandler log = SkriptLogger.startPooledParseLogHandler();
 		try {
 			if (context == ParseContext.DEFAULT || context == ParseContext.EVENT) {
 				Variable<? extends T> parsedVariable = parseVariable(expr, types);
@@ -430,7 +430,7 @@ public class SkriptParser {
 					expr.startsWith("(") && expr.endsWith(")") &&
 					next(expr, 0, context) == expr.length())
 			return new SkriptParser(this, "" + expr.substring(1, expr.length() - 1)).parseSingleExpr(allowUnparsedLiteral, error, exprInfo);
-		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		ParseLogHandler log = SkriptLogger.startPooledParseLogHandler();
 		try {
 			// Construct types array which contains all potential classes
 			Class<?>[] types = new Class[exprInfo.classes.length]; // This may contain nulls!
@@ -646,7 +646,7 @@ public class SkriptParser {
 		assert types != null && types.length > 0;
 		assert types.length == 1 || !CollectionUtils.contains(types, Object.class);
 
-		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		ParseLogHandler log = SkriptLogger.startPooledParseLogHandler();
 		try {
 			Expression<? extends T> parsedExpression = parseSingleExpr(true, null, types);
 			if (parsedExpression != null) {
@@ -775,7 +775,7 @@ public class SkriptParser {
 			return null;
 
 		boolean isObject = exprInfo.classes.length == 1 && exprInfo.classes[0].getC() == Object.class;
-		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		ParseLogHandler log = SkriptLogger.startPooledParseLogHandler();
 		try {
 			// Attempt to parse a single expression
 			Expression<?> parsedExpression = parseSingleExpr(true, null, exprInfo);
@@ -916,7 +916,7 @@ public class SkriptParser {
 	public <T> FunctionReference<T> parseFunction(@Nullable Class<? extends T>... types) {
 		if (context != ParseContext.DEFAULT && context != ParseContext.EVENT)
 			return null;
-		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		ParseLogHandler log = SkriptLogger.startPooledParseLogHandler();
 		AtomicBoolean unaryArgument = new AtomicBoolean(false);
 		try {
 			Matcher matcher = FUNCTION_CALL_PATTERN.matcher(expr);
@@ -956,6 +956,7 @@ public class SkriptParser {
 					currentScript != null ? currentScript.getConfig().getFileName() : null, types, params);//.toArray(new Expression[params.size()]));
 			attempt_list_parse:
 			if (unaryArgument.get() && !functionReference.validateParameterArity(true)) {
+				// not pooled, as parseExpressionList may already have stopped the handler before it is cleared
 				try (ParseLogHandler ignored = SkriptLogger.startParseLogHandler()) {
 					SkriptParser alternative = new SkriptParser(args, flags | PARSE_LITERALS, context);
 					params = this.getFunctionArguments(() -> alternative.suppressMissingAndOrWarnings()
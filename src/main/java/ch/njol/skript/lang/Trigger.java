@@ -19,6 +19,7 @@
 package ch.njol.skript.lang;
 
 import org.skriptlang.skript.lang.script.Script;
+import ch.njol.skript.timings.SkriptProfiler;
 import ch.njol.skript.variables.Variables;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
@@ -32,7 +33,6 @@ public class Trigger extends TriggerSection {
 
 	@Nullable
 	private final Script script;
-	private int line = -1; // -1 is default: it means there is no line number available
 	private String debugLabel;
 
 	public Trigger(@Nullable Script script, String name, SkriptEvent event, List<TriggerItem> items) {
@@ -49,7 +49,13 @@ public class Trigger extends TriggerSection {
 	 * @return false if an exception occurred.
 	 */
 	public boolean execute(Event event) {
-		boolean success = TriggerItem.walk(this, event);
+		SkriptProfiler.Frame frame = SkriptProfiler.enter(this);
+		boolean success;
+		try {
+			success = TriggerItem.walk(this, event);
+		} finally {
+			SkriptProfiler.exit(frame);
+		}
 
 		// Clear local variables
 		Variables.removeLocals(event);
@@ -99,22 +105,6 @@ public class Trigger extends TriggerSection {
 		return script;
 	}
 
-	/**
-	 * Sets line number for this trigger's start.
-	 * Only used for debugging.
-	 * @param line Line number
-	 */
-	public void setLineNumber(int line) {
-		this.line  = line;
-	}
-
-	/**
-	 * @return The line number where this trigger starts. This should ONLY be used for debugging!
-	 */
-	public int getLineNumber() {
-		return line;
-	}
-
 	public void setDebugLabel(String label) {
 		this.debugLabel = label;
 	}
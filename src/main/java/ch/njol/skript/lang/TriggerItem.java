@@ -19,6 +19,7 @@
 package ch.njol.skript.lang;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.timings.SkriptProfiler;
 import ch.njol.skript.util.SkriptColor;
 import ch.njol.util.StringUtils;
 import org.bukkit.event.Event;
@@ -42,6 +43,8 @@ public abstract class TriggerItem implements Debuggable {
 	@Nullable
 	private TriggerItem next = null;
 
+	private int line = -1; // -1 is default: it means there is no line number available
+
 	protected TriggerItem() {}
 
 	protected TriggerItem(TriggerSection parent) {
@@ -84,8 +87,23 @@ public abstract class TriggerItem implements Debuggable {
 	public static boolean walk(TriggerItem start, Event event) {
 		TriggerItem triggerItem = start;
 		try {
-			while (triggerItem != null)
-				triggerItem = triggerItem.walk(event);
+			if (SkriptProfiler.isEnabled()) {
+				while (triggerItem != null) {
+					if (triggerItem instanceof Trigger) { // already measured by Trigger#execute
+						triggerItem = triggerItem.walk(event);
+						continue;
+					}
+					SkriptProfiler.Frame frame = SkriptProfiler.enter(triggerItem);
+					try {
+						triggerItem = triggerItem.walk(event);
+					} finally {
+						SkriptProfiler.exit(frame);
+					}
+				}
+			} else {
+				while (triggerItem != null)
+					triggerItem = triggerItem.walk(event);
+			}
 
 			return true;
 		} catch (StackOverflowError err) {
@@ -164,6 +182,22 @@ public abstract class TriggerItem implements Debuggable {
 		return (Trigger) triggerItem;
 	}
 
+	/**
+	 * Sets line number for this item's start.
+	 * Only used for debugging.
+	 * @param line Line number
+	 */
+	public void setLineNumber(int line) {
+		this.line = line;
+	}
+
+	/**
+	 * @return The line number where this item starts. This should ONLY be used for debugging!
+	 */
+	public int getLineNumber() {
+		return line;
+	}
+
 	public TriggerItem setNext(@Nullable TriggerItem next) {
 		this.next = next;
 		return this;
@@ -21,12 +21,13 @@ package ch.njol.skript.lang;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
-import java.util.TreeMap;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
@@ -381,7 +382,7 @@ public class Variable<T> implements Expression<T> {
 		Object val = Variables.getVariable(name + "*", event, local);
 		if (val == null)
 			return new EmptyIterator<>();
-		assert val instanceof TreeMap;
+		assert val instanceof Map;
 		// temporary list to prevent CMEs
 		@SuppressWarnings("unchecked")
 		Iterator<String> keys = new ArrayList<>(((Map<String, Object>) val).keySet()).iterator();
@@ -399,7 +400,7 @@ public class Variable<T> implements Expression<T> {
 					key = keys.next();
 					if (key != null) {
 						next = convertIfOldPlayer(name + key, event, Variables.getVariable(name + key, event, local));
-						if (next != null && !(next instanceof TreeMap))
+						if (next != null && !(next instanceof Map))
 							return true;
 					}
 				}
@@ -435,7 +436,7 @@ public class Variable<T> implements Expression<T> {
 		Object value = Variables.getVariable(name + "*", event, local);
 		if (value == null)
 			return new EmptyIterator<>();
-		assert value instanceof TreeMap;
+		assert value instanceof Map;
 		// temporary list to prevent CMEs
 		Iterator<String> keys = new ArrayList<>(((Map<String, Object>) value).keySet()).iterator();
 		return new Iterator<T>() {
@@ -454,7 +455,7 @@ public class Variable<T> implements Expression<T> {
 					if (key != null) {
 						next = Converters.convert(Variables.getVariable(name + key, event, local), types);
 						next = (T) convertIfOldPlayer(name + key, event, next);
-						if (next != null && !(next instanceof TreeMap))
+						if (next != null && !(next instanceof Map))
 							return true;
 					}
 				}
@@ -494,11 +495,14 @@ public class Variable<T> implements Expression<T> {
 		Variables.setVariable("" + name.toString(event), value, event, local);
 	}
 
-	private void setIndex(Event event, String index, @Nullable Object value) {
+	/**
+	 * @return the name of this list variable without the trailing asterisk, e.g. {@code list::}.
+	 */
+	private String getListPrefix(Event event) {
 		assert list;
 		String name = this.name.toString(event);
 		assert name.endsWith(SEPARATOR + "*") : name + "; " + this.name;
-		Variables.setVariable(name.substring(0, name.length() - 1) + index, value, event, local);
+		return name.substring(0, name.length() - 1);
 	}
 
 	@Override
@@ -514,38 +518,30 @@ public class Variable<T> implements Expression<T> {
 		switch (mode) {
 			case DELETE:
 				if (list) {
-					ArrayList<String> toDelete = new ArrayList<>();
-					Map<String, Object> map = (Map<String, Object>) getRaw(event);
-					if (map == null)
+					if (getRaw(event) == null)
 						return;
-					for (Entry<String, Object> entry : map.entrySet()) {
-						if (entry.getKey() != null){
-							toDelete.add(entry.getKey());
-						}
-					}
-					for (String index : toDelete) {
-						assert index != null;
-						setIndex(event, index, null);
-					}
+					Variables.changeListVariable(getListPrefix(event), true, Collections.emptyMap(), event, local);
+				} else {
+					set(event, null);
 				}
-
-				set(event, null);
 				break;
 			case SET:
 				assert delta != null;
 				if (list) {
-					set(event, null);
+					Map<String, Object> changes = new LinkedHashMap<>();
 					int i = 1;
 					for (Object value : delta) {
 						if (value instanceof Object[]) {
+							String subPrefix = i + SEPARATOR;
 							for (int j = 0; j < ((Object[]) value).length; j++) {
-								setIndex(event, "" + i + SEPARATOR + (j + 1), ((Object[]) value)[j]);
+								changes.put(subPrefix + (j + 1), ((Object[]) value)[j]);
 							}
 						} else {
-							setIndex(event, "" + i, value);
+							changes.put(String.valueOf(i), value);
 						}
 						i++;
 					}
+					Variables.changeListVariable(getListPrefix(event), true, changes, event, local);
 				} else if (delta.length > 0) {
 					// if length = 0, likely a failure in casting
 					// (eg, set vector length of {_notvector} to 1, which casts delta to Vector[], resulting in an empty Vector array)
@@ -578,7 +574,7 @@ public class Variable<T> implements Expression<T> {
 					if (mode == ChangeMode.REMOVE) {
 						if (map == null)
 							return;
-						ArrayList<String> toRemove = new ArrayList<>(); // prevents CMEs
+						Map<String, Object> toRemove = new LinkedHashMap<>(); // prevents CMEs
 						for (Object value : delta) {
 							for (Entry<String, Object> entry : map.entrySet()) {
 								if (Relation.EQUAL.isImpliedBy(Comparators.compare(entry.getValue(), value))) {
@@ -587,39 +583,35 @@ public class Variable<T> implements Expression<T> {
 										continue; // This is NOT a part of list variable
 
 									// Otherwise, we'll mark that key to be set to null
-									toRemove.add(key);
+									toRemove.put(key, null);
 									break;
 								}
 							}
 						}
-						for (String index : toRemove) {
-							assert index != null;
-							setIndex(event, index, null);
-						}
+						Variables.changeListVariable(getListPrefix(event), false, toRemove, event, local);
 					} else if (mode == ChangeMode.REMOVE_ALL) {
 						if (map == null)
 							return;
-						ArrayList<String> toRemove = new ArrayList<>(); // prevents CMEs
+						Map<String, Object> toRemove = new LinkedHashMap<>(); // prevents CMEs
 						for (Entry<String, Object> i : map.entrySet()) {
 							for (Object value : delta) {
-								if (Relation.EQUAL.isImpliedBy(Comparators.compare(i.getValue(), value)))
-									toRemove.add(i.getKey());
+								if (i.getKey() != null && Relation.EQUAL.isImpliedBy(Comparators.compare(i.getValue(), value)))
+									toRemove.put(i.getKey(), null);
 							}
 						}
-						for (String index : toRemove) {
-							assert index != null;
-							setIndex(event, index, null);
-						}
+						Variables.changeListVariable(getListPrefix(event), false, toRemove, event, local);
 					} else {
 						assert mode == ChangeMode.ADD;
+						Map<String, Object> changes = new LinkedHashMap<>();
 						int i = 1;
 						for (Object value : delta) {
 							if (map != null)
-								while (map.containsKey("" + i))
+								while (map.containsKey(String.valueOf(i)))
 									i++;
-							setIndex(event, "" + i, value);
+							changes.put(String.valueOf(i), value);
 							i++;
 						}
+						Variables.changeListVariable(getListPrefix(event), false, changes, event, local);
 					}
 				} else {
 					Object originalValue = get(event);
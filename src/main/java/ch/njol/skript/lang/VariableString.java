@@ -79,6 +79,12 @@ public class VariableString implements Expression<String> {
 	 */
 	private final MessageComponent[] components;
 
+	/**
+	 * Formatted message components of a simple string. These are parsed
+	 * once on first use and only copies of them are handed out.
+	 */
+	private MessageComponent @Nullable [] simpleComponents;
+
 	/**
 	 * Creates a new VariableString which does not contain variables.
 	 *
@@ -408,10 +414,8 @@ public class VariableString implements Expression<String> {
 	 * @return Message components.
 	 */
 	public List<MessageComponent> getMessageComponents(Event event) {
-		if (isSimple) { // Trusted, constant string in a script
-			assert simpleUnformatted != null;
-			return ChatMessages.parse(simpleUnformatted);
-		}
+		if (isSimple) // Trusted, constant string in a script
+			return getSimpleComponents();
 
 		// Parse formatting
 		Object[] strings = this.stringsUnformatted;
@@ -473,14 +477,30 @@ public class VariableString implements Expression<String> {
 	 * @return Message components.
 	 */
 	public List<MessageComponent> getMessageComponentsUnsafe(Event event) {
-		if (isSimple) { // Trusted, constant string in a script
-			assert simpleUnformatted != null;
-			return ChatMessages.parse(simpleUnformatted);
-		}
+		if (isSimple) // Trusted, constant string in a script
+			return getSimpleComponents();
 
 		return ChatMessages.parse(toUnformattedString(event));
 	}
 
+	/**
+	 * Gets the message components of a simple string. The string is only
+	 * parsed the first time this is called, later calls copy the cached components.
+	 * @return A new, modifiable list of message components.
+	 */
+	private List<MessageComponent> getSimpleComponents() {
+		MessageComponent[] simpleComponents = this.simpleComponents;
+		if (simpleComponents == null) {
+			assert simpleUnformatted != null;
+			simpleComponents = ChatMessages.parseToArray(simpleUnformatted);
+			this.simpleComponents = simpleComponents;
+		}
+		List<MessageComponent> message = new ArrayList<>(simpleComponents.length);
+		for (MessageComponent component : simpleComponents)
+			message.add(component.copy());
+		return message;
+	}
+
 	/**
 	 * Parses all expressions in the string and returns it in chat JSON format.
 	 *
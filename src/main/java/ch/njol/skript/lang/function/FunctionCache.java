@@ -0,0 +1,261 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.lang.function;
+
+import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.comparator.Comparators;
+import org.skriptlang.skript.lang.comparator.Relation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the return values of a function, used for functions declared as {@code cached}.
+ * <p>
+ * The return values are keyed by the argument values, which are compared like Skript compares values,
+ * i.e. with {@link Comparators}, so e.g. a call with {@code 2} uses the return value of a call with {@code 2.0}.
+ * When the cache is full, the least recently used entry is evicted.
+ * Note that the arguments of the cached calls, e.g. players, entities or worlds, are strongly referenced
+ * until their entry is evicted, expires or the function is unloaded.
+ * Values that can be mutated (i.e. whose class info has a {@link ch.njol.skript.classes.Cloner})
+ * are cloned when they are stored and when they are returned, so cached entries can't be changed by scripts.
+ */
+public final class FunctionCache {
+
+	/**
+	 * All caches that haven't been closed yet, for reporting their statistics.
+	 */
+	private static final Set<FunctionCache> CACHES = new LinkedHashSet<>();
+
+	/**
+	 * @return all caches of currently loaded functions.
+	 */
+	public static Collection<FunctionCache> getCaches() {
+		synchronized (CACHES) {
+			return new ArrayList<>(CACHES);
+		}
+	}
+
+	private final String name;
+	private final long lifetime;
+
+	private final LinkedHashMap<Key, Entry> entries;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param name the name of the cached function.
+	 * @param maxSize the maximum amount of return values to keep.
+	 * @param lifetime how long a return value may be used, in milliseconds, or 0 to keep it until it is evicted.
+	 */
+	public FunctionCache(String name, int maxSize, long lifetime) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("The size of a function cache must be positive");
+		this.name = name;
+		this.lifetime = lifetime * 1_000_000L;
+		entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				return size() > maxSize;
+			}
+		};
+		synchronized (CACHES) {
+			CACHES.add(this);
+		}
+	}
+
+	/**
+	 * Creates the key for the given arguments, which has to be done before the function is executed,
+	 * as it may change the arguments.
+	 *
+	 * @param arguments the arguments of a call of the function.
+	 * @return the key to use for {@link #get(Object)} and {@link #put(Object, Object[])}.
+	 */
+	Object createKey(Object[][] arguments) {
+		Object[][] values = new Object[arguments.length][];
+		for (int i = 0; i < arguments.length; i++)
+			values[i] = FunctionReference.cloneArguments(arguments[i]);
+		return new Key(values);
+	}
+
+	/**
+	 * @param key the key of the arguments of the call.
+	 * @return a copy of the cached return value, or {@code null} if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T @Nullable [] get(Object key) {
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if (entry != null && lifetime > 0 && System.nanoTime() - entry.time > lifetime) {
+				entries.remove(key);
+				entry = null;
+			}
+		}
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return (T[]) copy(entry.value);
+	}
+
+	/**
+	 * @param key the key of the arguments of the call.
+	 * @param value the return value of the call.
+	 */
+	void put(Object key, Object[] value) {
+		Entry entry = new Entry(copy(value), System.nanoTime());
+		synchronized (entries) {
+			entries.put((Key) key, entry);
+		}
+	}
+
+	private static Object[] copy(Object[] value) {
+		Object[] copy = FunctionReference.cloneArguments(value);
+		return copy == value ? value.clone() : copy;
+	}
+
+	/**
+	 * Removes all return values from this cache.
+	 */
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * Clears this cache and stops reporting it in {@link #getCaches()}, used when its function is unloaded.
+	 */
+	public void close() {
+		clear();
+		synchronized (CACHES) {
+			CACHES.remove(this);
+		}
+	}
+
+	/**
+	 * @return the name of the cached function.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the amount of calls that used a cached return value.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the amount of calls that had to execute the function.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the amount of cached return values.
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	private static final class Key {
+
+		private final Object[][] arguments;
+		private final int hash;
+
+		private Key(Object[][] arguments) {
+			this.arguments = arguments;
+			int hash = 1;
+			for (Object[] values : arguments) {
+				for (Object value : values)
+					hash = 31 * hash + hash(value);
+				hash = 31 * hash + values.length;
+			}
+			this.hash = hash;
+		}
+
+		/**
+		 * Values that are equal according to their comparator should have the same hash,
+		 * which is only ensured for numbers and texts. Other values that are equal but have different hashes
+		 * (e.g. an item type and an equal item stack) are just not found in the cache.
+		 */
+		private static int hash(@Nullable Object value) {
+			if (value instanceof Number) {
+				double number = ((Number) value).doubleValue();
+				return number == 0 ? 0 : Double.hashCode(number);
+			}
+			if (value instanceof String)
+				return ((String) value).toLowerCase(Locale.ENGLISH).hashCode();
+			return Objects.hashCode(value);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key) || hash != ((Key) obj).hash)
+				return false;
+			Object[][] other = ((Key) obj).arguments;
+			if (arguments.length != other.length)
+				return false;
+			for (int i = 0; i < arguments.length; i++) {
+				if (arguments[i].length != other[i].length)
+					return false;
+				for (int j = 0; j < arguments[i].length; j++) {
+					Object first = arguments[i][j], second = other[i][j];
+					if (!Objects.equals(first, second) && Comparators.compare(first, second) != Relation.EQUAL)
+						return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	private static final class Entry {
+
+		private final Object[] value;
+		private final long time;
+
+		private Entry(Object[] value, long time) {
+			this.value = value;
+			this.time = time;
+		}
+
+	}
+
+}
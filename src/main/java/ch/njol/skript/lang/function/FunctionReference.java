@@ -52,17 +52,14 @@ public class FunctionReference<T> implements Contract {
 	/**
 	 * Signature of referenced function. If {@link #validateFunction(boolean)}
 	 * succeeds, this is not null.
+	 * <p>
+	 * Calls go directly to the function linked to this signature (see {@link Signature#getFunction()}).
+	 * If revalidation fails after the function was redefined, the old signature is kept,
+	 * so this reference continues to use the old version of the function.
 	 */
 	@Nullable
 	private Signature<? extends T> signature;
 	
-	/**
-	 * Actual function reference. Null before the function is called for first
-	 * time.
-	 */
-	@Nullable
-	private Function<? extends T> function;
-	
 	/**
 	 * If all function parameters can be condensed to a single list.
 	 */
@@ -137,8 +134,6 @@ public class FunctionReference<T> implements Contract {
 	public boolean validateFunction(boolean first) {
 		if (!first && script == null)
 			return false;
-		Function<? extends T> previousFunction = function;
-		function = null;
 		SkriptLogger.setNode(node);
 		Skript.debug("Validating function " + functionName);
 		Signature<?> sign = Functions.getSignature(functionName, script);
@@ -150,7 +145,6 @@ public class FunctionReference<T> implements Contract {
 			} else {
 				Skript.error("The function '" + functionName + "' was deleted or renamed, but is still used in other script(s)."
 					+ " These will continue to use the old version of the function until Skript restarts.");
-				function = previousFunction;
 			}
 			return false;
 		}
@@ -165,7 +159,6 @@ public class FunctionReference<T> implements Contract {
 				} else {
 					Skript.error("The function '" + functionName + "' was redefined with no return value, but is still used in other script(s)."
 						+ " These will continue to use the old version of the function until Skript restarts.");
-					function = previousFunction;
 				}
 				return false;
 			}
@@ -175,7 +168,6 @@ public class FunctionReference<T> implements Contract {
 				} else {
 					Skript.error("The function '" + functionName + "' was redefined with a different, incompatible return type, but is still used in other script(s)."
 						+ " These will continue to use the old version of the function until Skript restarts.");
-					function = previousFunction;
 				}
 				return false;
 			}
@@ -184,7 +176,6 @@ public class FunctionReference<T> implements Contract {
 			} else if (single && !sign.single) {
 				Skript.error("The function '" + functionName + "' was redefined with a different, incompatible return type, but is still used in other script(s)."
 						+ " These will continue to use the old version of the function until Skript restarts.");
-				function = previousFunction;
 				return false;
 			}
 		}
@@ -206,7 +197,6 @@ public class FunctionReference<T> implements Contract {
 				} else {
 					Skript.error("The function '" + functionName + "' was redefined with a different, incompatible amount of arguments, but is still used in other script(s)."
 						+ " These will continue to use the old version of the function until Skript restarts.");
-					function = previousFunction;
 				}
 				return false;
 			}
@@ -220,7 +210,6 @@ public class FunctionReference<T> implements Contract {
 			} else {
 				Skript.error("The function '" + functionName + "' was redefined with a different, incompatible amount of arguments, but is still used in other script(s)."
 					+ " These will continue to use the old version of the function until Skript restarts.");
-				function = previousFunction;
 			}
 			return false;
 		}
@@ -243,7 +232,6 @@ public class FunctionReference<T> implements Contract {
 					} else {
 						Skript.error("The function '" + functionName + "' was redefined with different, incompatible arguments, but is still used in other script(s)."
 							+ " These will continue to use the old version of the function until Skript restarts.");
-						function = previousFunction;
 					}
 					return false;
 				} else if (p.single && !e.isSingle()) {
@@ -253,7 +241,6 @@ public class FunctionReference<T> implements Contract {
 					} else {
 						Skript.error("The function '" + functionName + "' was redefined with different, incompatible arguments, but is still used in other script(s)."
 							+ " These will continue to use the old version of the function until Skript restarts.");
-						function = previousFunction;
 					}
 					return false;
 				}
@@ -274,23 +261,26 @@ public class FunctionReference<T> implements Contract {
 	}
 
 	@Nullable
+	@SuppressWarnings("unchecked")
 	public Function<? extends T> getFunction() {
+		Signature<? extends T> signature = this.signature;
+		Function<? extends T> function = signature != null ? signature.getFunction() : null;
+		// Fall back to looking up the function if it isn't linked to the signature (yet)
+		if (function == null)
+			function = (Function<? extends T>) Functions.getFunction(functionName, script);
 		return function;
 	}
 
 	public boolean resetReturnValue() {
+		Function<? extends T> function = getFunction();
 		if (function != null)
 			return function.resetReturnValue();
 		return false;
 	}
 
-	@SuppressWarnings("unchecked")
 	@Nullable
 	protected T[] execute(Event e) {
-		// If needed, acquire the function reference
-		if (function == null)
-			function = (Function<? extends T>) Functions.getFunction(functionName, script);
-
+		Function<? extends T> function = getFunction();
 		if (function == null) { // It might be impossible to resolve functions in some cases!
 			Skript.error("Couldn't resolve call for '" + functionName + "'.");
 			return null; // Return nothing and hope it works
@@ -302,27 +292,38 @@ public class FunctionReference<T> implements Contract {
 			List<Object> l = new ArrayList<>();
 			for (Expression<?> parameter : parameters)
 				l.addAll(Arrays.asList(parameter.getArray(e)));
-			params[0] = l.toArray();
-			
-			// Don't allow mutating across function boundary; same hack is applied to variables
-			for (int i = 0; i < params[0].length; i++) {
-				params[0][i] = Classes.clone(params[0][i]);
-			}
+			params[0] = cloneArguments(l.toArray());
 		} else { // Use parameters in normal way
-			for (int i = 0; i < parameters.length; i++) {
-				Object[] array = parameters[i].getArray(e);
-				params[i] = Arrays.copyOf(array, array.length);
-				// Don't allow mutating across function boundary; same hack is applied to variables
-				for (int j = 0; j < params[i].length; j++) {
-					params[i][j] = Classes.clone(params[i][j]);
-				}
-			}
+			for (int i = 0; i < parameters.length; i++)
+				params[i] = cloneArguments(parameters[i].getArray(e));
 		}
 		
 		// Execute the function
 		return function.execute(params);
 	}
 
+	/**
+	 * Don't allow mutating across function boundary; same hack is applied to variables.
+	 * Only values whose class info has a {@link ch.njol.skript.classes.Cloner} are cloned,
+	 * values of other types are passed as is, as they can't be cloned anyway.
+	 * The array is only copied if any of its values has to be cloned,
+	 * as some expressions (e.g. literals) return their internal array.
+	 * @param values The argument values.
+	 * @return The values to pass to the function, which is the given array if no value had to be cloned.
+	 */
+	static Object[] cloneArguments(Object[] values) {
+		Object[] arguments = values;
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			if (!value.getClass().isArray() && Classes.getSuperClassInfo(value.getClass()).getCloner() == null)
+				continue;
+			if (arguments == values)
+				arguments = Arrays.copyOf(values, values.length);
+			arguments[i] = Classes.clone(value);
+		}
+		return arguments;
+	}
+
 	public boolean isSingle() {
 		return contract.isSingle(parameters);
 	}
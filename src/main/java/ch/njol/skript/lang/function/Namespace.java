@@ -203,6 +203,11 @@ public class Namespace {
 		Info info = new Info(func.getName(), func.getSignature().local);
 		assert signatures.containsKey(info) : "missing signature for function";
 		functions.put(info, func);
+		link(func);
+	}
+
+	private static <T> void link(Function<T> func) {
+		func.getSignature().setFunction(func);
 	}
 
 	@SuppressWarnings("null")
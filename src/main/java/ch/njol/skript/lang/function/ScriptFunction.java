@@ -31,6 +31,8 @@ import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.util.SimpleEvent;
 import ch.njol.skript.variables.Variables;
 
+import java.lang.reflect.Array;
+
 public class ScriptFunction<T> extends Function<T> implements ReturnHandler<T> {
 
 	private final Trigger trigger;
@@ -38,6 +40,9 @@ public class ScriptFunction<T> extends Function<T> implements ReturnHandler<T> {
 	private boolean returnValueSet;
 	private T @Nullable [] returnValues;
 
+	@Nullable
+	private FunctionCache cache;
+
 	/**
 	 * @deprecated use {@link ScriptFunction#ScriptFunction(Signature, SectionNode)}
 	 */
@@ -61,7 +66,17 @@ public class ScriptFunction<T> extends Function<T> implements ReturnHandler<T> {
 	// REMIND track possible types of local variables (including undefined variables) (consider functions, commands, and EffChange) - maybe make a general interface for this purpose
 	// REM: use patterns, e.g. {_a%b%} is like "a.*", and thus subsequent {_axyz} may be set and of that type.
 	@Override
+	@SuppressWarnings("unchecked")
 	public T @Nullable [] execute(final FunctionEvent<?> e, final Object[][] params) {
+		FunctionCache cache = this.cache;
+		Object cacheKey = null;
+		if (cache != null) {
+			cacheKey = cache.createKey(params);
+			T[] cached = cache.get(cacheKey);
+			if (cached != null)
+				return cached.length == 0 ? null : cached;
+		}
+
 		Parameter<?>[] parameters = getSignature().getParameters();
 		for (int i = 0; i < parameters.length; i++) {
 			Parameter<?> p = parameters[i];
@@ -77,7 +92,34 @@ public class ScriptFunction<T> extends Function<T> implements ReturnHandler<T> {
 		
 		trigger.execute(e);
 		ClassInfo<T> returnType = getReturnType();
-		return returnType != null ? returnValues : null;
+		if (returnType == null)
+			return null;
+		T[] returnValues = this.returnValues;
+		if (cache != null) {
+			// no return value is cached as an empty array, and returned as null whether it was cached or not
+			if (returnValues != null && returnValues.length == 0)
+				returnValues = null;
+			cache.put(cacheKey, returnValues != null ? returnValues : (T[]) Array.newInstance(returnType.getC(), 0));
+		}
+		return returnValues;
+	}
+
+	/**
+	 * @return The cache of the return values of this function, or null if it isn't cached.
+	 */
+	@Nullable
+	public FunctionCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Makes this function cache its return values, i.e. the function will only be executed
+	 * if it hasn't been called with the same arguments before.
+	 * This should only be used for functions that don't have side effects and only depend on their arguments.
+	 * @param cache The cache to use, or null to not cache the return values.
+	 */
+	public void setCache(@Nullable FunctionCache cache) {
+		this.cache = cache;
 	}
 
 	/**
@@ -70,6 +70,14 @@ public class Signature<T> {
 	 */
 	final Collection<FunctionReference<?>> calls;
 
+	/**
+	 * The function with this signature, linked when its body has been loaded.
+	 * All {@link FunctionReference}s to this signature call this function directly,
+	 * so they don't have to look up the function by name.
+	 */
+	@Nullable
+	private volatile Function<T> function;
+
 	/**
 	 * The class path for the origin of this signature.
 	 */
@@ -149,6 +157,23 @@ public class Signature<T> {
 		return contract;
 	}
 
+	/**
+	 * @return The function with this signature, or null if its body hasn't been loaded yet.
+	 */
+	@Nullable
+	public Function<T> getFunction() {
+		return function;
+	}
+
+	/**
+	 * Links the given function to this signature, replacing the function of all references to it.
+	 * @param function The function with this signature.
+	 */
+	void setFunction(Function<T> function) {
+		assert function.getSignature() == this;
+		this.function = function;
+	}
+
 	/**
 	 * Gets maximum number of parameters that the function described by this
 	 * signature is able to take.
@@ -18,8 +18,9 @@
  */
 package ch.njol.skript.log;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -28,7 +29,12 @@ import org.jetbrains.annotations.Nullable;
  */
 public class HandlerList implements Iterable<LogHandler> {
 	
-	private final LinkedList<LogHandler> list = new LinkedList<>();
+	private final Deque<LogHandler> list = new ArrayDeque<>();
+
+	/**
+	 * Stopped parse log handlers that can be reused by {@link SkriptLogger#startPooledParseLogHandler()}.
+	 */
+	final Deque<ParseLogHandler> parseLogHandlerPool = new ArrayDeque<>();
 	
 	public void add(LogHandler h) {
 		list.addFirst(h);
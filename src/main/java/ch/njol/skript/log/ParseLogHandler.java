@@ -27,12 +27,66 @@ import java.util.List;
 import java.util.logging.Level;
 
 public class ParseLogHandler extends LogHandler {
+
+	/**
+	 * The maximum amount of stopped handlers kept for reuse per parser,
+	 * roughly the maximum depth of nested parse attempts.
+	 */
+	private static final int MAX_POOLED_HANDLERS = 32;
 	
 	@Nullable
 	private LogEntry error = null;
 	
 	private final List<LogEntry> log = new ArrayList<>();
 
+	/**
+	 * The handler list whose pool this handler is returned to when stopped,
+	 * {@code null} if this handler isn't pooled.
+	 */
+	@Nullable
+	private final HandlerList pool;
+
+	/**
+	 * Whether this handler has been returned to its pool.
+	 * A pooled handler may already be in use again, so it must not be used anymore by whoever stopped it.
+	 */
+	private boolean pooled = false;
+
+	private static final String POOLED_ERROR = "This handler has been returned to its pool and may already be in use elsewhere";
+
+	public ParseLogHandler() {
+		pool = null;
+	}
+
+	/**
+	 * Creates a handler that is returned to the given handler list's pool when stopped.
+	 *
+	 * @see SkriptLogger#startPooledParseLogHandler()
+	 */
+	ParseLogHandler(HandlerList pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Resets this handler after it has been taken out of its pool.
+	 */
+	void reuse() {
+		assert pooled;
+		pooled = false;
+		error = null;
+		log.clear();
+		printedErrorOrLog = false;
+	}
+
+	@Override
+	protected void onStop() {
+		HandlerList pool = this.pool;
+		if (pool != null && !pooled && pool.parseLogHandlerPool.size() < MAX_POOLED_HANDLERS) {
+			pooled = true;
+			pool.parseLogHandlerPool.push(this);
+		}
+	}
+
 	/**
 	 * Internal method for creating a backup of this log.
 	 * @return A new ParseLogHandler containing the contents of this ParseLogHandler.
@@ -83,12 +137,16 @@ public class ParseLogHandler extends LogHandler {
 	 * Clears all log messages except for the error
 	 */
 	public void clear() {
+		assert !pooled : POOLED_ERROR;
+		if (log.isEmpty())
+			return;
 		for (LogEntry e : log)
 			e.discarded("cleared");
 		log.clear();
 	}
 
 	public void clearError() {
+		assert !pooled : POOLED_ERROR;
 		if (error != null)
 			error.discarded("cleared");
 		error = null;
@@ -102,6 +160,7 @@ public class ParseLogHandler extends LogHandler {
 	}
 
 	public void printLog(boolean includeErrors) {
+		assert !pooled : POOLED_ERROR;
 		printedErrorOrLog = true;
 		stop();
 		for (LogEntry logEntry : log)
@@ -121,6 +180,7 @@ public class ParseLogHandler extends LogHandler {
 	 * @param def Error to log if no error has been logged so far, can be null
 	 */
 	public void printError(@Nullable String def) {
+		assert !pooled : POOLED_ERROR;
 		printedErrorOrLog = true;
 		stop();
 		LogEntry error = this.error;
@@ -133,6 +193,7 @@ public class ParseLogHandler extends LogHandler {
 	}
 	
 	public void printError(String def, ErrorQuality quality) {
+		assert !pooled : POOLED_ERROR;
 		printedErrorOrLog = true;
 		stop();
 		LogEntry error = this.error;
@@ -25,6 +25,7 @@ import java.util.logging.Logger;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.ConsoleCommandSender;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import ch.njol.skript.Skript;
@@ -71,6 +72,28 @@ public abstract class SkriptLogger {
 	public static ParseLogHandler startParseLogHandler() {
 		return new ParseLogHandler().start();
 	}
+
+	/**
+	 * Like {@link #startParseLogHandler()}, but reuses a previously stopped handler of the current parser if possible,
+	 * as parsing starts a lot of short-lived parse log handlers.
+	 * <p>
+	 * The returned handler is reused once it has been stopped,
+	 * so it must not be used anymore after stopping it (except for further calls to stop it).
+	 *
+	 * @return A started ParseLogHandler
+	 */
+	@ApiStatus.Internal
+	public static ParseLogHandler startPooledParseLogHandler() {
+		HandlerList handlers = getHandlers();
+		ParseLogHandler handler = handlers.parseLogHandlerPool.poll();
+		if (handler == null) {
+			handler = new ParseLogHandler(handlers);
+		} else {
+			handler.reuse();
+		}
+		handlers.add(handler);
+		return handler;
+	}
 	
 	/**
 	 * Starts a log handler.
@@ -146,7 +146,7 @@ public class TypePatternElement extends PatternElement {
 		ParseLogHandler loopLogHandlerBackup = null;
 		ParseLogHandler expressionLogHandlerBackup = null;
 
-		ParseLogHandler loopLogHandler = SkriptLogger.startParseLogHandler();
+		ParseLogHandler loopLogHandler = SkriptLogger.startPooledParseLogHandler();
 		try {
 			while (newExprOffset != -1) {
 				loopLogHandler.clear();
@@ -157,7 +157,8 @@ public class TypePatternElement extends PatternElement {
 				MatchResult newMatchResult = matchNext(expr, matchResultCopy);
 
 				if (newMatchResult != null) {
-					ParseLogHandler expressionLogHandler = SkriptLogger.startParseLogHandler();
+					ParseLogHandler expressionLogHandler = SkriptLogger.startPooledParseLogHandler();
+					boolean printedLog = false; // a printed handler may already have been returned to its pool
 					try {
 						Expression<?> expression = new SkriptParser(expr.substring(matchResult.exprOffset, newExprOffset), matchResult.flags & flagMask, matchResult.parseContext).parseExpression(exprInfo);
 						if (expression != null) {
@@ -199,6 +200,7 @@ public class TypePatternElement extends PatternElement {
 							}
 
 							if (!hasUnparsedLiteral) {
+								printedLog = true;
 								expressionLogHandler.printLog();
 								loopLogHandler.printLog();
 								return newMatchResult;
@@ -209,7 +211,8 @@ public class TypePatternElement extends PatternElement {
 							}
 						}
 					} finally {
-						expressionLogHandler.printError();
+						if (!printedLog)
+							expressionLogHandler.printError();
 					}
 				}
 
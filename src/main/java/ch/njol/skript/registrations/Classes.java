@@ -82,8 +82,26 @@ public abstract class Classes {
 	private static ClassInfo<?>[] classInfos = null;
 	private final static List<ClassInfo<?>> tempClassInfos = new ArrayList<>();
 	private final static HashMap<Class<?>, ClassInfo<?>> exactClassInfos = new HashMap<>();
-	private final static HashMap<Class<?>, ClassInfo<?>> superClassInfos = new HashMap<>();
 	private final static HashMap<String, ClassInfo<?>> classInfosByCodeName = new HashMap<>();
+
+	/**
+	 * The class infos assignable from a class, closest first, as in {@link #getAllSuperClassInfos(Class)}.
+	 * Only used once the class infos have been sorted, so the computed values never change
+	 * and lookups from any thread don't need any locking, see {@link #getSuperClassInfoList(Class)}.
+	 */
+	private final static ClassValue<List<ClassInfo<?>>> superClassInfos = new ClassValue<List<ClassInfo<?>>>() {
+		@Override
+		protected List<ClassInfo<?>> computeValue(Class<?> c) {
+			ClassInfo<?>[] classInfos = Classes.classInfos;
+			assert classInfos != null;
+			List<ClassInfo<?>> list = new ArrayList<>(4);
+			for (ClassInfo<?> ci : classInfos) {
+				if (ci.getC().isAssignableFrom(c))
+					list.add(ci);
+			}
+			return Collections.unmodifiableList(list);
+		}
+	};
 	
 	/**
 	 * @param info info about the class to register
@@ -306,18 +324,9 @@ public abstract class Classes {
 	public static <T> ClassInfo<? super T> getSuperClassInfo(final Class<T> c) {
 		assert c != null;
 		checkAllowClassInfoInteraction();
-		final ClassInfo<?> i = superClassInfos.get(c);
-		if (i != null)
-			return (ClassInfo<? super T>) i;
-		for (final ClassInfo<?> ci : getClassInfos()) {
-			if (ci.getC().isAssignableFrom(c)) {
-				if (!Skript.isAcceptRegistrations())
-					superClassInfos.put(c, ci);
-				return (ClassInfo<? super T>) ci;
-			}
-		}
-		assert false;
-		return null;
+		List<ClassInfo<?>> infos = getSuperClassInfoList(c);
+		assert !infos.isEmpty() : c;
+		return infos.isEmpty() ? null : (ClassInfo<? super T>) infos.get(0);
 	}
 
 	/**
@@ -336,19 +345,20 @@ public abstract class Classes {
 	 * Gets all the class info of the given class in closest order to ending on object. This list will never be empty unless <tt>c</tt> is null.
 	 * 
 	 * @param c the class to check if assignable from
-	 * @return The closest list of superclass infos
+	 * @return The closest list of superclass infos, which may not be modified
 	 */
-	@SuppressWarnings("unchecked")
+	@SuppressWarnings({"unchecked", "rawtypes"})
 	public static <T> List<ClassInfo<? super T>> getAllSuperClassInfos(Class<T> c) {
 		assert c != null;
 		checkAllowClassInfoInteraction();
-		List<ClassInfo<? super T>> list = new ArrayList<>();
-		for (ClassInfo<?> ci : getClassInfos()) {
-			if (ci.getC().isAssignableFrom(c)) {
-				list.add((ClassInfo<? super T>) ci);
-			}
-		}
-		return list;
+		return (List) getSuperClassInfoList(c);
+	}
+
+	private static List<ClassInfo<?>> getSuperClassInfoList(Class<?> c) {
+		// The class infos aren't sorted yet, so the result can't be cached
+		if (classInfos == null)
+			return Collections.emptyList();
+		return superClassInfos.get(c);
 	}
 	
 	/**
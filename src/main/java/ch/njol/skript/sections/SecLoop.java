@@ -38,6 +38,7 @@ import ch.njol.util.Kleenean;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -89,8 +90,9 @@ public class SecLoop extends LoopSection {
 	@SuppressWarnings("NotNullFieldNotInitialized")
 	private Expression<?> expr;
 
-	private final transient Map<Event, Object> current = new WeakHashMap<>();
-	private final transient Map<Event, Iterator<?>> currentIter = new WeakHashMap<>();
+	// Synchronized like LoopSection#currentLoopCounter, as the loop may run on multiple threads at once
+	private final transient Map<Event, Object> current = Collections.synchronizedMap(new WeakHashMap<>());
+	private final transient Map<Event, Iterator<?>> currentIter = Collections.synchronizedMap(new WeakHashMap<>());
 
 	@Nullable
 	private TriggerItem actualNext;
@@ -20,6 +20,7 @@ package ch.njol.skript.structures;
 
 import ch.njol.skript.ScriptLoader;
 import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
 import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
@@ -27,8 +28,11 @@ import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.function.Function;
+import ch.njol.skript.lang.function.FunctionCache;
 import ch.njol.skript.lang.function.FunctionEvent;
 import ch.njol.skript.lang.function.Functions;
+import ch.njol.skript.lang.function.ScriptFunction;
 import ch.njol.skript.lang.function.Signature;
 import ch.njol.skript.lang.parser.ParserInstance;
 import org.bukkit.event.Event;
@@ -44,7 +48,10 @@ import java.util.regex.Pattern;
 @Description({
 	"Functions are structures that can be executed with arguments/parameters to run code.",
 	"They can also return a value to the trigger that is executing the function.",
-	"Note that local functions come before global functions execution"
+	"Note that local functions come before global functions execution",
+	"Cached functions remember their return value for the arguments they were called with,",
+	"so they are only executed again when called with different arguments.",
+	"Only use this for functions that always return the same value for the same arguments and don't change anything."
 })
 @Examples({
 	"function sayMessage(message: text):",
@@ -54,20 +61,23 @@ import java.util.regex.Pattern;
 	"\treturn {_amount} of apple",
 	"",
 	"function getPoints(p: player) returns number:",
-	"\treturn {points::%{_p}%}"
+	"\treturn {points::%{_p}%}",
+	"",
+	"cached function levelToXP(level: number) :: number:",
+	"\treturn 4.5 * {_level}^2 - 162.5 * {_level} + 2220"
 })
-@Since("2.2, 2.7 (local functions)")
+@Since("2.2, 2.7 (local functions), INSERT VERSION (cached functions)")
 public class StructFunction extends Structure {
 
 	public static final Priority PRIORITY = new Priority(400);
 
 	private static final Pattern SIGNATURE_PATTERN =
-			Pattern.compile("^(?:local )?function (" + Functions.functionNamePattern + ")\\((.*?)\\)(?:\\s*(?:::| returns )\\s*(.+))?$");
+			Pattern.compile("^(?:local )?(?:cached )?function (" + Functions.functionNamePattern + ")\\((.*?)\\)(?:\\s*(?:::| returns )\\s*(.+))?$");
 	private static final AtomicBoolean VALIDATE_FUNCTIONS = new AtomicBoolean();
 
 	static {
 		Skript.registerStructure(StructFunction.class,
-			"[:local] function <.+>"
+			"[:local] [:cached] function <.+>"
 		);
 	}
 
@@ -76,12 +86,16 @@ public class StructFunction extends Structure {
 	@Nullable
 	private Signature<?> signature;
 	private boolean local;
+	private boolean cached;
+	@Nullable
+	private FunctionCache cache;
 
 	@Override
 	public boolean init(Literal<?>[] literals, int matchedPattern, ParseResult parseResult, @Nullable EntryContainer entryContainer) {
 		assert entryContainer != null; // cannot be null for non-simple structures
 		this.source = entryContainer.getSource();
 		local = parseResult.hasTag("local");
+		cached = parseResult.hasTag("cached");
 		return true;
 	}
 
@@ -106,6 +120,11 @@ public class StructFunction extends Structure {
 		);
 		getParser().deleteCurrentEvent();
 
+		if (cached && signature != null && signature.getReturnType() == null) {
+			Skript.error("Only functions that return a value can be cached");
+			return false;
+		}
+
 		// attempt registration
 		return signature != null && Functions.registerSignature(signature) != null;
 	}
@@ -117,7 +136,11 @@ public class StructFunction extends Structure {
 
 		assert signature != null;
 		// noinspection ConstantConditions - entry container cannot be null as this structure is not simple
-		Functions.loadFunction(parser.getCurrentScript(), source, signature);
+		Function<?> function = Functions.loadFunction(parser.getCurrentScript(), source, signature);
+		if (cached && function instanceof ScriptFunction) {
+			cache = new FunctionCache(signature.getName(), SkriptConfig.functionCacheSize.value(), SkriptConfig.functionCacheLifetime.value().getMilliSeconds());
+			((ScriptFunction<?>) function).setCache(cache);
+		}
 
 		parser.deleteCurrentEvent();
 
@@ -140,6 +163,8 @@ public class StructFunction extends Structure {
 		assert signature != null;
 		Functions.unregisterFunction(signature);
 		VALIDATE_FUNCTIONS.set(true);
+		if (cache != null)
+			cache.close();
 	}
 
 	@Override
@@ -149,7 +174,7 @@ public class StructFunction extends Structure {
 
 	@Override
 	public String toString(@Nullable Event event, boolean debug) {
-		return (local ? "local " : "") + "function";
+		return (local ? "local " : "") + (cached ? "cached " : "") + "function";
 	}
 
 }
@@ -0,0 +1,91 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.timings;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of durations, which can be recorded from multiple threads at once.
+ * <p>
+ * The durations are counted in buckets of increasing powers of two nanoseconds,
+ * so percentiles are only accurate to a factor of two, which is enough to tell apart the orders of magnitude.
+ */
+public final class LatencyHistogram {
+
+	private static final int BUCKETS = Long.SIZE;
+
+	private final LongAdder[] buckets = new LongAdder[BUCKETS];
+	private final LongAdder count = new LongAdder();
+	private final LongAdder time = new LongAdder();
+
+	public LatencyHistogram() {
+		for (int i = 0; i < BUCKETS; i++)
+			buckets[i] = new LongAdder();
+	}
+
+	/**
+	 * @param nanos the duration to record, in nanoseconds.
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) // System.nanoTime isn't guaranteed to be monotonic on all platforms
+			nanos = 0;
+		// Bucket i counts the durations in [2^(i-1), 2^i)
+		buckets[Long.SIZE - Long.numberOfLeadingZeros(nanos)].increment();
+		count.increment();
+		time.add(nanos);
+	}
+
+	/**
+	 * @return the amount of recorded durations.
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * @return the sum of all recorded durations, in nanoseconds.
+	 */
+	public long getTime() {
+		return time.sum();
+	}
+
+	/**
+	 * @param percentile the percentile, between 0 and 1.
+	 * @return an upper bound of the given percentile of the recorded durations, in nanoseconds,
+	 * or 0 if nothing has been recorded yet.
+	 */
+	public long getPercentile(double percentile) {
+		long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+
+		long rank = (long) Math.ceil(percentile * total);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank && seen > 0)
+				return i == 0 ? 0 : (1L << i) - 1;
+		}
+		return 0;
+	}
+
+}
@@ -0,0 +1,431 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.timings;
+
+import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerItem;
+import org.jetbrains.annotations.Nullable;
+import org.skriptlang.skript.lang.script.Script;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A profiler for triggers and their items that doesn't depend on the server's timings.
+ * <p>
+ * While running, it records the wall time, the amount of invocations and an estimate of the allocated memory
+ * of every {@link Trigger} and {@link TriggerItem} that is executed, in a call tree
+ * (e.g. a function call's trigger is a child of the item calling it).
+ * The counters are {@link LongAdder}s, so triggers running on multiple threads don't contend on them.
+ * When the profiler isn't running, the only overhead is checking {@link #isEnabled()}.
+ */
+public final class SkriptProfiler {
+
+	private SkriptProfiler() {}
+
+	private static volatile boolean enabled;
+
+	@Nullable
+	private static volatile Profile profile;
+
+	/**
+	 * The node of the call tree the current thread is executing,
+	 * {@code null} (or a node of an older profile) if it isn't executing anything being profiled.
+	 */
+	private static final ThreadLocal<ProfileNode> CURRENT = new ThreadLocal<>();
+
+	@Nullable
+	private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN;
+
+	static {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+			ALLOCATION_BEAN = (com.sun.management.ThreadMXBean) bean;
+		} else {
+			ALLOCATION_BEAN = null;
+		}
+	}
+
+	/**
+	 * @return whether the profiler is currently running.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Starts a new profile, discarding the previous one.
+	 */
+	public static void start() {
+		profile = new Profile();
+		enabled = true;
+	}
+
+	/**
+	 * Stops the profiler, keeping the recorded profile for {@link #getProfile()}.
+	 * The triggers and trigger items of the stopped profile are replaced by their labels,
+	 * so it doesn't keep the triggers of scripts that are unloaded afterwards in memory.
+	 *
+	 * @return the stopped profile, or {@code null} if the profiler wasn't running.
+	 */
+	@Nullable
+	public static Profile stop() {
+		if (!enabled)
+			return null;
+		enabled = false;
+		Profile profile = SkriptProfiler.profile;
+		if (profile != null) {
+			profile.endTime = System.nanoTime();
+			profile.root.detach();
+		}
+		return profile;
+	}
+
+	/**
+	 * @return the running or last recorded profile, or {@code null} if the profiler was never started.
+	 */
+	@Nullable
+	public static Profile getProfile() {
+		return profile;
+	}
+
+	/**
+	 * Starts measuring the execution of the given item on the current thread.
+	 * Every call must be followed by a call to {@link #exit(Frame)} with the returned frame,
+	 * typically in a {@code finally} block.
+	 *
+	 * @param item the trigger or trigger item that is about to be executed.
+	 * @return the frame to pass to {@link #exit(Frame)}, or {@code null} if the profiler isn't running.
+	 */
+	@Nullable
+	public static Frame enter(TriggerItem item) {
+		Profile profile = SkriptProfiler.profile;
+		if (!enabled || profile == null)
+			return null;
+
+		ProfileNode previous = CURRENT.get();
+		ProfileNode parent = previous;
+		if (parent == null || parent.profile != profile) {
+			// Nothing is being executed yet, e.g. the trigger of an event or the continuation after a delay
+			parent = profile.root;
+			Trigger trigger = item.getTrigger();
+			if (trigger != null && trigger != item)
+				parent = parent.getChild(trigger);
+		}
+
+		ProfileNode node = parent.getChild(item);
+		CURRENT.set(node);
+		return new Frame(node, previous, getAllocatedBytes(), System.nanoTime());
+	}
+
+	/**
+	 * Stops measuring the execution of the item of the given frame.
+	 *
+	 * @param frame the frame returned by {@link #enter(TriggerItem)}.
+	 */
+	public static void exit(@Nullable Frame frame) {
+		if (frame == null)
+			return;
+		long time = System.nanoTime() - frame.startTime;
+		long allocated = getAllocatedBytes() - frame.startAllocated;
+		frame.node.record(time, allocated);
+		CURRENT.set(frame.previous);
+	}
+
+	private static long getAllocatedBytes() {
+		com.sun.management.ThreadMXBean bean = ALLOCATION_BEAN;
+		return bean != null ? bean.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+	}
+
+	/**
+	 * @param item the trigger or trigger item.
+	 * @return a label of the given item including its script and line, e.g. {@code test.sk:12: broadcast "hi"}.
+	 */
+	static String getLabel(Object item) {
+		if (!(item instanceof TriggerItem))
+			return String.valueOf(item);
+		TriggerItem triggerItem = (TriggerItem) item;
+		Trigger trigger = triggerItem.getTrigger();
+		Script script = trigger == null ? null : trigger.getScript();
+		String scriptName = script == null ? "<unknown>" : script.getConfig().getFileName();
+		String label;
+		try {
+			label = triggerItem.toString(null, false);
+		} catch (RuntimeException e) {
+			label = triggerItem.getClass().getSimpleName();
+		}
+		return scriptName + ":" + triggerItem.getLineNumber() + ": " + label;
+	}
+
+	/**
+	 * The state of a running frame, returned by {@link #enter(TriggerItem)}.
+	 */
+	public static final class Frame {
+
+		private final ProfileNode node;
+		@Nullable
+		private final ProfileNode previous;
+		private final long startAllocated;
+		private final long startTime;
+
+		private Frame(ProfileNode node, @Nullable ProfileNode previous, long startAllocated, long startTime) {
+			this.node = node;
+			this.previous = previous;
+			this.startAllocated = startAllocated;
+			this.startTime = startTime;
+		}
+
+	}
+
+	/**
+	 * The data recorded between starting and stopping the profiler.
+	 */
+	public static final class Profile {
+
+		private final ProfileNode root = new ProfileNode(this, null);
+		private final long startTime = System.nanoTime();
+		private volatile long endTime = -1;
+
+		private Profile() {}
+
+		/**
+		 * @return the time this profile has been recording for, in nanoseconds.
+		 */
+		public long getDuration() {
+			long endTime = this.endTime;
+			return (endTime == -1 ? System.nanoTime() : endTime) - startTime;
+		}
+
+		/**
+		 * @return the root of the call tree, whose children are the executed triggers.
+		 */
+		public ProfileNode getRoot() {
+			return root;
+		}
+
+		/**
+		 * Gets the items that spent the most time executing themselves, excluding their children,
+		 * summed up over all places of the call tree they were executed in.
+		 *
+		 * @param limit the maximum amount of items to return.
+		 * @return the items, sorted by their self time in descending order.
+		 */
+		public List<ProfileEntry> getTopEntries(int limit) {
+			Map<Object, ProfileEntry> entries = new HashMap<>();
+			collect(root, entries);
+			List<ProfileEntry> list = new ArrayList<>(entries.values());
+			list.sort(Comparator.comparingLong(ProfileEntry::getSelfTime).reversed());
+			return list.size() > limit ? list.subList(0, limit) : list;
+		}
+
+		private static void collect(ProfileNode node, Map<Object, ProfileEntry> entries) {
+			for (ProfileNode child : node.getChildren()) {
+				Object key = child.key;
+				assert key != null;
+				ProfileEntry entry = entries.computeIfAbsent(key, ProfileEntry::new);
+				entry.count += child.getCount();
+				entry.time += child.getTime();
+				entry.selfTime += child.getSelfTime();
+				entry.allocated += child.getAllocated();
+				collect(child, entries);
+			}
+		}
+
+		/**
+		 * Writes the call tree in the collapsed stack format used by flame graph tools,
+		 * i.e. one line per node with its frames separated by {@code ;} and its self time in microseconds.
+		 *
+		 * @param file the file to write to.
+		 * @throws IOException if the file couldn't be written.
+		 */
+		public void exportFlameGraph(File file) throws IOException {
+			try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8.name())) {
+				for (ProfileNode child : root.getChildren())
+					export(writer, "", child);
+			}
+		}
+
+		private static void export(PrintWriter writer, String parent, ProfileNode node) {
+			String stack = parent + getLabel(node.key).replace(';', ',').replace('\n', ' ');
+			long selfMicros = node.getSelfTime() / 1000;
+			if (selfMicros > 0)
+				writer.println(stack + " " + selfMicros);
+			for (ProfileNode child : node.getChildren())
+				export(writer, stack + ";", child);
+		}
+
+	}
+
+	/**
+	 * A node of the call tree of a {@link Profile}.
+	 */
+	public static final class ProfileNode {
+
+		private final Profile profile;
+		@Nullable
+		private volatile Object key;
+		private volatile ConcurrentHashMap<Object, ProfileNode> children = new ConcurrentHashMap<>();
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder time = new LongAdder();
+		private final LongAdder allocated = new LongAdder();
+
+		private ProfileNode(Profile profile, @Nullable Object key) {
+			this.profile = profile;
+			this.key = key;
+		}
+
+		private ProfileNode getChild(Object key) {
+			ProfileNode child = children.get(key);
+			if (child == null)
+				child = children.computeIfAbsent(key, k -> new ProfileNode(profile, k));
+			return child;
+		}
+
+		private void record(long time, long allocated) {
+			count.increment();
+			this.time.add(time);
+			if (allocated > 0)
+				this.allocated.add(allocated);
+		}
+
+		/**
+		 * Replaces the triggers and trigger items of the children of this node by their labels.
+		 * Children with the same label, e.g. the same trigger before and after reloading its script, are merged.
+		 */
+		private void detach() {
+			ConcurrentHashMap<Object, ProfileNode> detached = new ConcurrentHashMap<>();
+			for (ProfileNode child : children.values()) {
+				child.key = getLabel(child.key);
+				child.detach();
+				ProfileNode existing = detached.putIfAbsent(child.key, child);
+				if (existing != null)
+					existing.merge(child);
+			}
+			children = detached;
+		}
+
+		private void merge(ProfileNode other) {
+			count.add(other.getCount());
+			time.add(other.getTime());
+			allocated.add(other.getAllocated());
+			for (ProfileNode child : other.children.values()) {
+				ProfileNode existing = children.putIfAbsent(child.key, child);
+				if (existing != null)
+					existing.merge(child);
+			}
+		}
+
+		/**
+		 * @return the trigger or trigger item of this node, or its label once the profile has been stopped,
+		 * {@code null} for the root.
+		 */
+		@Nullable
+		public Object getKey() {
+			return key;
+		}
+
+		public Collection<ProfileNode> getChildren() {
+			return children.values();
+		}
+
+		/**
+		 * @return the amount of times this node was executed.
+		 */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/**
+		 * @return the total time spent executing this node, including its children, in nanoseconds.
+		 */
+		public long getTime() {
+			return time.sum();
+		}
+
+		/**
+		 * @return the time spent executing this node excluding its children, in nanoseconds.
+		 */
+		public long getSelfTime() {
+			long time = getTime();
+			for (ProfileNode child : children.values())
+				time -= child.getTime();
+			// Children may have been executed without this node, e.g. after a delay
+			return Math.max(time, 0);
+		}
+
+		/**
+		 * @return an estimate of the memory allocated while executing this node, in bytes.
+		 */
+		public long getAllocated() {
+			return allocated.sum();
+		}
+
+	}
+
+	/**
+	 * The statistics of one trigger or trigger item, summed up over all places of the call tree it was executed in.
+	 */
+	public static final class ProfileEntry {
+
+		private final Object key;
+		private long count, time, selfTime, allocated;
+
+		private ProfileEntry(Object key) {
+			this.key = key;
+		}
+
+		/**
+		 * @return a label of this entry's item including its script and line.
+		 */
+		public String getLabel() {
+			return SkriptProfiler.getLabel(key);
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getTime() {
+			return time;
+		}
+
+		public long getSelfTime() {
+			return selfTime;
+		}
+
+		public long getAllocated() {
+			return allocated;
+		}
+
+	}
+
+}
@@ -18,6 +18,15 @@
  */
 package ch.njol.skript.util;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
 import org.jetbrains.annotations.Nullable;
@@ -25,9 +34,8 @@ import org.jetbrains.annotations.Nullable;
 import ch.njol.skript.Skript;
 import ch.njol.skript.effects.Delay;
 import ch.njol.skript.lang.Effect;
-import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.TriggerItem;
-import ch.njol.skript.timings.SkriptTimings;
+import ch.njol.skript.timings.LatencyHistogram;
 import ch.njol.skript.variables.Variables;
 
 /**
@@ -35,12 +43,40 @@ import ch.njol.skript.variables.Variables;
  * in main server thread, as if there had been a delay before.
  * <p>
  * Majority of Skript and Minecraft APIs are not thread-safe, so be careful.
+ * <p>
+ * Async effects directly following each other are executed on the same thread without returning to the main thread in between,
+ * and all triggers whose async effects completed until the next tick are continued in a single task.
+ * Async effects that override {@link #walk(Event)} are not executed this way, so their {@code walk} is still called on the main thread.
  *
  * Make sure to add set {@link ch.njol.skript.ScriptLoader#hasDelayBefore} to
  * {@link ch.njol.util.Kleenean#TRUE} in the {@code init} method.
  */
 public abstract class AsyncEffect extends Effect {
-	
+
+	/**
+	 * The continuations of triggers whose async effects have completed, waiting to be run on the main thread.
+	 */
+	private static final Queue<Runnable> COMPLETED = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Whether a task running {@link #COMPLETED} has been scheduled and hasn't started yet.
+	 */
+	private static final AtomicBoolean CONTINUE_SCHEDULED = new AtomicBoolean();
+
+	private static final Map<Class<? extends AsyncEffect>, LatencyHistogram> LATENCIES = new ConcurrentHashMap<>();
+
+	/**
+	 * Whether each type of async effect overrides {@link #walk(Event)}.
+	 */
+	private static final Map<Class<?>, Boolean> OVERRIDES_WALK = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the histograms of how long the executions of each type of async effect took.
+	 */
+	public static Map<Class<? extends AsyncEffect>, LatencyHistogram> getLatencies() {
+		return Collections.unmodifiableMap(LATENCIES);
+	}
+
 	@Override
 	@Nullable
 	protected TriggerItem walk(Event e) {
@@ -57,28 +93,76 @@ public abstract class AsyncEffect extends Effect {
 			if (localVars != null)
 				Variables.setLocalVariables(e, localVars);
 			
-			execute(e); // Execute this effect
+			TriggerItem next = executeAll(e); // Execute this effect and the async effects following it
 			
-			if (getNext() != null) {
-				Bukkit.getScheduler().runTask(Skript.getInstance(), () -> { // Walk to next item synchronously
-					Object timing = null;
-					if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
-						Trigger trigger = getTrigger();
-						if (trigger != null) {
-							timing = SkriptTimings.start(trigger.getDebugLabel());
-						}
-					}
-					
-					TriggerItem.walk(getNext(), e);
-					
-					Variables.removeLocals(e); // Clean up local vars, we may be exiting now
-					
-					SkriptTimings.stop(timing); // Stop timing if it was even started
-				});
+			if (next != null) {
+				// Walk to next item synchronously, the local variables are already set
+				continueLater(() -> Delay.continueWalking(next, e, null));
 			} else {
 				Variables.removeLocals(e);
 			}
 		});
 		return null;
 	}
+
+	/**
+	 * Executes this effect and all async effects directly following it,
+	 * as the main thread would only hand them off to another thread again.
+	 * Stops before async effects overriding {@link #walk(Event)}, as skipping their {@code walk} could change their behaviour.
+	 *
+	 * @return the item after the executed effects.
+	 */
+	@Nullable
+	private TriggerItem executeAll(Event event) {
+		AsyncEffect effect = this;
+		while (true) {
+			long start = System.nanoTime();
+			effect.execute(event);
+			LATENCIES.computeIfAbsent(effect.getClass(), c -> new LatencyHistogram()).record(System.nanoTime() - start);
+
+			TriggerItem next = effect.getNext();
+			if (!(next instanceof AsyncEffect) || overridesWalk(next.getClass()))
+				return next;
+			effect = (AsyncEffect) next;
+			effect.debug(event, true);
+		}
+	}
+
+	private static boolean overridesWalk(Class<?> effectClass) {
+		return OVERRIDES_WALK.computeIfAbsent(effectClass, c -> {
+			for (; c != AsyncEffect.class; c = c.getSuperclass()) {
+				try {
+					c.getDeclaredMethod("walk", Event.class);
+					return true;
+				} catch (NoSuchMethodException ignored) {}
+			}
+			return false;
+		});
+	}
+
+	/**
+	 * Runs the given continuation on the main thread, in one task with all continuations added until the next tick.
+	 */
+	private static void continueLater(Runnable continuation) {
+		COMPLETED.add(continuation);
+		if (CONTINUE_SCHEDULED.compareAndSet(false, true))
+			Bukkit.getScheduler().runTask(Skript.getInstance(), AsyncEffect::continueCompleted);
+	}
+
+	private static void continueCompleted() {
+		CONTINUE_SCHEDULED.set(false);
+		// Only run the continuations added so far, later ones are run by the next scheduled task
+		List<Runnable> continuations = new ArrayList<>();
+		Runnable continuation;
+		while ((continuation = COMPLETED.poll()) != null)
+			continuations.add(continuation);
+		for (Runnable completed : continuations) {
+			try {
+				completed.run();
+			} catch (Exception ex) {
+				//noinspection ThrowableNotThrown
+				Skript.exception(ex, "Exception while continuing a trigger after an async effect");
+			}
+		}
+	}
 }
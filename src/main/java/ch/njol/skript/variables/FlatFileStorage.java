@@ -29,6 +29,7 @@ import ch.njol.skript.util.Task;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.Version;
 import ch.njol.util.NotifyingReference;
+import org.bukkit.Bukkit;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
@@ -38,12 +39,14 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -85,6 +88,23 @@ public class FlatFileStorage extends VariablesStorage {
 	 */
 	private final NotifyingReference<PrintWriter> changesWriter = new NotifyingReference<>();
 
+	/**
+	 * The changes made while the variables are being {@link #saveVariables(boolean) saved},
+	 * {@code null} if they aren't being saved.
+	 * <p>
+	 * While saving, the {@link #changesWriter} writes to this buffer instead of the file,
+	 * so changes don't wait for the save (which would fill up the bounded {@link #changesQueue}).
+	 * Its size is only bounded by the amount of changes made during one save.
+	 * Access must be synchronized on {@link #changesWriter}.
+	 */
+	@Nullable
+	private StringWriter changesDuringSave;
+
+	/**
+	 * Prevents the variables from being {@link #saveVariables(boolean) saved} multiple times at once.
+	 */
+	private final Object saveLock = new Object();
+
 	/**
 	 * Whether the storage has been loaded.
 	 */
@@ -304,8 +324,11 @@ public class FlatFileStorage extends VariablesStorage {
 	@Override
 	protected final void disconnect() {
 		synchronized (connectionLock) {
-			clearChangesQueue();
 			synchronized (changesWriter) {
+				// The changes are buffered until the variables have been saved, they must not be dropped
+				if (changesDuringSave != null)
+					return;
+				clearChangesQueue();
 				PrintWriter printWriter = changesWriter.get();
 
 				if (printWriter != null) {
@@ -326,11 +349,12 @@ public class FlatFileStorage extends VariablesStorage {
 					return true;
 
 				// Open the file stream, and create the PrintWriter with it
-				try (FileOutputStream fos = new FileOutputStream(file, true)) {
-					changesWriter.set(new PrintWriter(new OutputStreamWriter(fos, FILE_CHARSET)));
+				//  (the stream must stay open, it is closed with the writer when disconnecting)
+				try {
+					changesWriter.set(new PrintWriter(new OutputStreamWriter(new FileOutputStream(file, true), FILE_CHARSET)));
 					loaded = true;
 					return true;
-				} catch (IOException e) { // close() might throw ANY IOException
+				} catch (IOException e) {
 					//noinspection ThrowableNotThrown
 					Skript.exception(e);
 					return false;
@@ -383,6 +407,10 @@ public class FlatFileStorage extends VariablesStorage {
 	 * The {@code finalSave} argument is used to determine if
 	 * the {@link #saveTask save} and {@link #backupTask backup} tasks
 	 * should be cancelled, and if the storage should reconnect after saving.
+	 * <p>
+	 * The variables are written from a {@link Variables#getVariablesSnapshot() snapshot},
+	 * so variables can still be changed while the file is being written.
+	 * These changes are kept in {@link #changesDuringSave} and appended to the new file once it has been written.
 	 *
 	 * @param finalSave whether this is the last save in this session or not.
 	 */
@@ -395,69 +423,101 @@ public class FlatFileStorage extends VariablesStorage {
 				backupTask.cancel();
 		}
 
-		try {
-			// Acquire read lock
-			Variables.getReadLock().lock();
+		synchronized (saveLock) {
+			try {
+				if (file == null) {
+					// This storage requires a file, so file should be nonnull
+					assert false : this;
+					return;
+				}
 
-			synchronized (connectionLock) {
+				StringWriter changesDuringSave = new StringWriter();
+				Map<String, Object> snapshot;
+
+				// Acquire read lock, only held until a snapshot of the variables has been taken
+				Variables.getReadLock().lock();
 				try {
-					if (file == null) {
-						// This storage requires a file, so file should be nonnull
-						assert false : this;
-						return;
+					synchronized (connectionLock) {
+						disconnect();
+
+						if (loadError) {
+							// There was an error while loading the CSV file, create a backup of it
+							try {
+								File backup = FileUtils.backup(file);
+								Skript.info("Created a backup of the old " + file.getName() + " as " + backup.getName());
+								loadError = false;
+							} catch (IOException e) {
+								Skript.error("Could not backup the old " + file.getName() + ": " + ExceptionUtils.toString(e));
+								Skript.error("No variables are saved!");
+								if (!finalSave)
+									connect();
+								return;
+							}
+						}
+
+						// Queued changes have been cleared by disconnecting, they are all part of the snapshot.
+						//  Changes made after this are kept in memory until the snapshot has been written
+						snapshot = Variables.getVariablesSnapshot();
+						synchronized (changesWriter) {
+							this.changesDuringSave = changesDuringSave;
+							changesWriter.set(new PrintWriter(changesDuringSave));
+						}
 					}
+				} finally {
+					Variables.getReadLock().unlock();
+				}
 
-					disconnect();
+				// Write the variables to a temporary file, giving less problems if saving fails
+				//  (if saving fails during writing to the actual file,
+				//  the data in the actual file may be partially lost)
+				File tempFile = new File(file.getParentFile(), file.getName() + ".temp");
+				boolean written = false;
+				try (PrintWriter pw = new PrintWriter(tempFile, "UTF-8")) {
+					pw.println("# === Skript's variable storage ===");
+					pw.println("# Please do not modify this file manually!");
+					pw.println("#");
+					pw.println("# version: " + Skript.getVersion());
+					pw.println();
+					save(pw, "", snapshot);
+					pw.println();
+					pw.flush();
+					written = true;
+				} catch (IOException e) {
+					Skript.error("Unable to make a final save of the database '" + databaseName +
+							"' (no variables are lost): " + ExceptionUtils.toString(e));
+					// FIXME happens at random - check locks/threads
+				}
+
+				synchronized (connectionLock) {
+					synchronized (changesWriter) {
+						changesWriter.set(null);
+						this.changesDuringSave = null;
 
-					if (loadError) {
-						// There was an error while loading the CSV file, create a backup of it
+						// Append the changes made while saving to the new file,
+						//  or to the old file if the new one couldn't be written
+						File changesFile = written ? tempFile : file;
 						try {
-							File backup = FileUtils.backup(file);
-							Skript.info("Created a backup of the old " + file.getName() + " as " + backup.getName());
-							loadError = false;
+							Files.write(changesFile.toPath(), changesDuringSave.toString().getBytes(FILE_CHARSET), StandardOpenOption.APPEND);
+							if (written)
+								FileUtils.move(tempFile, file, true);
 						} catch (IOException e) {
-							Skript.error("Could not backup the old " + file.getName() + ": " + ExceptionUtils.toString(e));
-							Skript.error("No variables are saved!");
-							return;
+							Skript.error("Unable to save the variables changed while saving the database '" + databaseName + "': " + ExceptionUtils.toString(e));
 						}
-					}
 
-					// Write the variables to a temporary file, giving less problems if saving fails
-					//  (if saving fails during writing to the actual file,
-					//  the data in the actual file may be partially lost)
-					File tempFile = new File(file.getParentFile(), file.getName() + ".temp");
-
-					try (PrintWriter pw = new PrintWriter(tempFile, "UTF-8")) {
-						pw.println("# === Skript's variable storage ===");
-						pw.println("# Please do not modify this file manually!");
-						pw.println("#");
-						pw.println("# version: " + Skript.getVersion());
-						pw.println();
-						save(pw, "", Variables.getVariables());
-						pw.println();
-						pw.flush();
-						pw.close();
-						FileUtils.move(tempFile, file, true);
-					} catch (IOException e) {
-						Skript.error("Unable to make a final save of the database '" + databaseName +
-								"' (no variables are lost): " + ExceptionUtils.toString(e));
-						// FIXME happens at random - check locks/threads
-					}
-				} finally {
-					// Reconnect if needed
-					if (!finalSave) {
-						connect();
+						// Reconnect if needed
+						if (!finalSave)
+							connect();
 					}
 				}
-			}
-		} finally {
-			Variables.getReadLock().unlock();
-			boolean gotWriteLock = Variables.variablesLock.writeLock().tryLock();
-			if (gotWriteLock) { // Only process queue now if it doesn't require us to wait
-				try {
-					Variables.processChangeQueue();
-				} finally {
-					Variables.variablesLock.writeLock().unlock();
+			} finally {
+				// Queued changes have to be serialized on the main thread, otherwise they are processed with the next change
+				boolean gotWriteLock = Bukkit.isPrimaryThread() && Variables.variablesLock.writeLock().tryLock();
+				if (gotWriteLock) { // Only process queue now if it doesn't require us to wait
+					try {
+						Variables.processChangeQueue();
+					} finally {
+						Variables.variablesLock.writeLock().unlock();
+					}
 				}
 			}
 		}
@@ -473,7 +533,7 @@ public class FlatFileStorage extends VariablesStorage {
 	 * @param map the variables map.
 	 */
 	@SuppressWarnings("unchecked")
-	private void save(PrintWriter pw, String parent, TreeMap<String, Object> map) {
+	private void save(PrintWriter pw, String parent, Map<String, Object> map) {
 		// Iterate over all children
 		for (Entry<String, Object> childEntry : map.entrySet()) {
 			Object childNode = childEntry.getValue();
@@ -482,9 +542,9 @@ public class FlatFileStorage extends VariablesStorage {
 			if (childNode == null)
 				continue; // Leaf node
 
-			if (childNode instanceof TreeMap) {
-				// TreeMap found, recurse
-				save(pw, parent + childKey + Variable.SEPARATOR, (TreeMap<String, Object>) childNode);
+			if (childNode instanceof Map) {
+				// Subtree found, recurse
+				save(pw, parent + childKey + Variable.SEPARATOR, (Map<String, Object>) childNode);
 			} else {
 				// Remove variable separator if needed
 				String name = childKey == null ? parent.substring(0, parent.length() - Variable.SEPARATOR.length()) : parent + childKey;
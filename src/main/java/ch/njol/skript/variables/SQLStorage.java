@@ -22,6 +22,10 @@ import java.io.File;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
 import java.util.concurrent.Callable;
@@ -203,7 +207,8 @@ public abstract class SQLStorage extends VariablesStorage {
 						Skript.info("[2.1] Updating the database '" + databaseName + "' to the new format...");
 						try {
 							Variables.getReadLock().lock();
-							for (final Entry<String, Object> v : Variables.getVariablesHashMap().entrySet()) {
+							final Map<String, Object> oldVariables = Variables.getVariablesHashMap();
+							for (final Entry<String, Object> v : oldVariables.entrySet()) {
 								if (accept(v.getKey())) {// only one database was possible, so only checking this database is correct
 									@SuppressWarnings("null")
 									final SerializedVariable var = Variables.serialize(v.getKey(), v.getValue());
@@ -211,7 +216,7 @@ public abstract class SQLStorage extends VariablesStorage {
 									save(var.name, d == null ? null : d.type, d == null ? null : d.data);
 								}
 							}
-							Skript.info("Updated and transferred " + Variables.getVariablesHashMap().size() + " variables to the new table.");
+							Skript.info("Updated and transferred " + oldVariables.size() + " variables to the new table.");
 						} finally {
 							Variables.getReadLock().unlock();
 						}
@@ -309,18 +314,23 @@ public abstract class SQLStorage extends VariablesStorage {
 					long lastWarning = Long.MIN_VALUE;
 					final int WARING_INTERVAL = 10;
 
+					// Poll again sooner while changes are coming in, and back off to the configured interval when idle
+					final long minInterval = Math.max(MIN_MONITOR_INTERVAL, monitor_interval / 4);
+					long interval = monitor_interval;
 					while (!closed) {
-						final long next = System.currentTimeMillis() + monitor_interval;
-						checkDatabase();
+						final long start = System.currentTimeMillis();
+						final long next = start + interval;
+						final int changes = checkDatabase();
+						interval = changes > 0 ? minInterval : Math.min(interval * 2, monitor_interval);
 						final long now = System.currentTimeMillis();
-						if (next < now && lastWarning + WARING_INTERVAL * 1000 < now) {
+						if (now - start > monitor_interval && lastWarning + WARING_INTERVAL * 1000 < now) {
 							// TODO don't print this message when Skript loads (because scripts are loaded after variables and take some time)
-							Skript.warning("Cannot load variables from the database fast enough (loading took " + ((now - next + monitor_interval) / 1000.) + "s, monitor interval = " + (monitor_interval / 1000.) + "s). " +
+							Skript.warning("Cannot load variables from the database fast enough (loading took " + ((now - start) / 1000.) + "s, monitor interval = " + (monitor_interval / 1000.) + "s). " +
 									"Please increase your monitor interval or reduce usage of variables. " +
 									"(this warning will be repeated at most once every " + WARING_INTERVAL + " seconds)");
 							lastWarning = now;
 						}
-						while (System.currentTimeMillis() < next) {
+						while (!closed && System.currentTimeMillis() < next) {
 							try {
 								Thread.sleep(next - System.currentTimeMillis());
 							} catch (final InterruptedException e) {}
@@ -499,52 +509,152 @@ public abstract class SQLStorage extends VariablesStorage {
 
 	long lastRowID = -1;
 
-	protected void checkDatabase() {
+	/**
+	 * The shortest time between two checks for changes in milliseconds,
+	 * the monitor thread checks this often while changes are coming in.
+	 */
+	private final static long MIN_MONITOR_INTERVAL = 50;
+
+	/**
+	 * The row ID up to which deleted variables will be cleaned up at {@link #cleanUpTime},
+	 * giving other servers time to see that they have been deleted.
+	 */
+	private long cleanUpRowID = -1;
+	private long cleanUpTime = -1;
+
+	/**
+	 * The time the last successful check for changes started at, -1 if there wasn't one yet.
+	 */
+	private volatile long lastSyncTime = -1;
+
+	/**
+	 * Gets the replication lag of this database, i.e. the maximum age of changes made by other servers
+	 * that haven't been applied to this server yet.
+	 *
+	 * @return the replication lag in milliseconds, or -1 if this database doesn't monitor changes
+	 * or hasn't checked for changes yet.
+	 */
+	public long getReplicationLag() {
+		long lastSyncTime = this.lastSyncTime;
+		if (!monitor || lastSyncTime == -1)
+			return -1;
+		return System.currentTimeMillis() - lastSyncTime;
+	}
+
+	/**
+	 * Loads the variables changed by other servers since the last check
+	 * and applies them to the variables with a single {@link Variables#variablesChanged(Map, VariablesStorage)} call.
+	 * <p>
+	 * The database is only locked while querying the changes, deserializing and applying them is done without holding the lock.
+	 *
+	 * @return the amount of changed variables.
+	 */
+	protected int checkDatabase() {
+		final long start = System.currentTimeMillis();
 		try {
 			final long lastRowID; // local variable as this is used to clean the database below
-			ResultSet r = null;
-			try {
-				synchronized (db) {
-					if (closed || db.get() == null)
-						return;
-					lastRowID = this.lastRowID;
-					final PreparedStatement monitorQuery = this.monitorQuery;
-					assert monitorQuery != null;
-					monitorQuery.setLong(1, lastRowID);
-					monitorQuery.setString(2, guid);
-					monitorQuery.execute();
-					r = monitorQuery.getResultSet();
-					assert r != null;
+			final List<Object[]> rows = new ArrayList<>();
+			synchronized (db) {
+				if (closed || db.get() == null)
+					return 0;
+				lastRowID = this.lastRowID;
+				final PreparedStatement monitorQuery = this.monitorQuery;
+				assert monitorQuery != null;
+				monitorQuery.setLong(1, lastRowID);
+				monitorQuery.setString(2, guid);
+				try (ResultSet r = monitorQuery.executeQuery()) {
+					while (r.next()) {
+						rows.add(new Object[] {r.getString(1), r.getString(2), r.getBytes(3)}); // Blob not supported by SQLite
+						this.lastRowID = Math.max(this.lastRowID, r.getLong(4));
+					}
 				}
-				if (!closed)
-					loadVariables(r);
-			} finally {
-				if (r != null)
-					r.close();
 			}
 
-			if (!closed) { // Skript may have been disabled in the meantime // TODO not fixed
-				new Task(Skript.getInstance(), (long) Math.ceil(2. * monitor_interval / 50) + 100, true) { // 2 times the interval + 5 seconds
+			if (!rows.isEmpty() && !closed) {
+				Task.callSync(new Callable<Void>() {
 					@Override
-					public void run() {
-						try {
-							synchronized (db) {
-								if (closed || db.get() == null)
-									return;
-								final PreparedStatement monitorCleanUpQuery = SQLStorage.this.monitorCleanUpQuery;
-								assert monitorCleanUpQuery != null;
-								monitorCleanUpQuery.setLong(1, lastRowID);
-								monitorCleanUpQuery.executeUpdate();
-							}
-						} catch (final SQLException e) {
-							sqlException(e);
-						}
+					@Nullable
+					public Void call() {
+						applyChanges(rows);
+						return null;
 					}
-				};
+				});
+			}
+			lastSyncTime = start;
+
+			if (!closed) // Skript may have been disabled in the meantime
+				cleanUp(lastRowID);
+			return rows.size();
+		} catch (final SQLException e) {
+			sqlException(e);
+			return 0;
+		}
+	}
+
+	/**
+	 * Deserializes the given changed rows and applies them. Must be called on Bukkit's main thread.
+	 *
+	 * @param rows the changed rows, each consisting of the name, type and value.
+	 */
+	private void applyChanges(final List<Object[]> rows) {
+		final Map<String, Object> changes = new LinkedHashMap<>();
+		for (final Object[] row : rows) {
+			final String name = (String) row[0];
+			if (name == null) {
+				Skript.error("Variable with NULL name found in the database '" + databaseName + "', ignoring it");
+				continue;
+			}
+			final String type = (String) row[1];
+			final byte[] value = (byte[]) row[2];
+			if (value == null) // A deleted variable, like in loadVariables this has no effect on loaded variables
+				continue;
+			final ClassInfo<?> c = Classes.getClassInfoNoError(type);
+			if (c == null || c.getSerializer() == null) {
+				Skript.error("Cannot load the variable {" + name + "} from the database '" + databaseName + "', because the type '" + type + "' cannot be recognised or cannot be stored in variables");
+				continue;
+			}
+			final Object d = Classes.deserialize(c, value);
+			if (d == null) {
+				Skript.error("Cannot load the variable {" + name + "} from the database '" + databaseName + "', because it cannot be loaded as " + c.getName().withIndefiniteArticle());
+				continue;
+			}
+			// Re-insert to keep the order of the changes
+			changes.remove(name);
+			changes.put(name, d);
+		}
+		if (!changes.isEmpty())
+			Variables.variablesChanged(changes, this);
+	}
+
+	/**
+	 * Deletes deleted variables older than the given row ID from the database,
+	 * two monitor intervals plus five seconds after it was first called with that row ID.
+	 * Only one clean up is pending at a time, instead of scheduling a task for every check.
+	 *
+	 * @param lastRowID the last row ID before the current check.
+	 */
+	private void cleanUp(final long lastRowID) {
+		final long now = System.currentTimeMillis();
+		if (cleanUpTime == -1) {
+			cleanUpRowID = lastRowID;
+			cleanUpTime = now + 2 * monitor_interval + 5000;
+			return;
+		}
+		if (now < cleanUpTime)
+			return;
+		try {
+			synchronized (db) {
+				if (closed || db.get() == null)
+					return;
+				final PreparedStatement monitorCleanUpQuery = this.monitorCleanUpQuery;
+				assert monitorCleanUpQuery != null;
+				monitorCleanUpQuery.setLong(1, cleanUpRowID);
+				monitorCleanUpQuery.executeUpdate();
 			}
 		} catch (final SQLException e) {
 			sqlException(e);
 		}
+		cleanUpTime = -1;
 	}
 
 //	private final static class VariableInfo {
@@ -0,0 +1,346 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A node of the variable tree of a {@link VariablesMap}.
+ * <p>
+ * Maps the next part of a variable name to either a value or another node,
+ * the {@code null} key holds the value of the list variable itself
+ * (e.g. the value of {@code {list}} in the node of {@code {list::*}}).
+ * <p>
+ * The children are stored in a {@link HashMap}, giving constant time lookups.
+ * The keys are only sorted using {@link VariablesMap#VARIABLE_NAME_COMPARATOR} when the node is iterated,
+ * and after that only the keys added since the last iteration have to be sorted and merged into the sorted keys.
+ * Iteration works on a snapshot of the keys, so modifying the node while iterating it is allowed.
+ */
+final class VariableNode extends AbstractMap<String, Object> {
+
+	private static final String[] EMPTY_KEYS = new String[0];
+
+	private final HashMap<String, Object> children;
+
+	/**
+	 * The keys of this node in sorted order as of the last iteration,
+	 * may still contain keys that have been removed since.
+	 * {@code null} if the keys have to be sorted from scratch.
+	 * <p>
+	 * This array is never modified after being assigned, so iterators can safely keep using it.
+	 */
+	private String @Nullable [] sortedKeys;
+
+	/**
+	 * The keys added since {@link #sortedKeys} was computed,
+	 * {@code null} if no keys were added since.
+	 */
+	@Nullable
+	private ArrayList<String> addedKeys;
+
+	/**
+	 * The amount of keys removed since {@link #sortedKeys} was computed.
+	 */
+	private int removedKeys;
+
+	/**
+	 * Whether this node is part of a snapshot, see {@link VariablesMap#snapshot()}.
+	 * Shared nodes may not be modified anymore, they have to be copied with {@link #copyShared()} instead.
+	 */
+	private boolean shared;
+
+	VariableNode() {
+		children = new HashMap<>(4);
+	}
+
+	private VariableNode(HashMap<String, Object> children) {
+		this.children = children;
+	}
+
+	/**
+	 * Creates a deep copy of the given node,
+	 * i.e. all child nodes are copied as well.
+	 *
+	 * @param original the node to copy.
+	 */
+	VariableNode(VariableNode original) {
+		children = new HashMap<>(original.children);
+		for (Entry<String, Object> child : children.entrySet()) {
+			if (child.getValue() instanceof VariableNode)
+				child.setValue(new VariableNode((VariableNode) child.getValue()));
+		}
+		synchronized (original) {
+			if (original.addedKeys == null && original.removedKeys == 0)
+				sortedKeys = original.sortedKeys;
+		}
+	}
+
+	/**
+	 * @return whether this node is part of a snapshot and may not be modified anymore.
+	 */
+	boolean isShared() {
+		return shared;
+	}
+
+	/**
+	 * Marks this node as part of a snapshot, so it won't be modified anymore.
+	 */
+	void markShared() {
+		shared = true;
+	}
+
+	/**
+	 * Creates a modifiable copy of this shared node.
+	 * The child nodes aren't copied, but marked as shared instead, as they are now part of both nodes.
+	 * <p>
+	 * This copies the map of children, so the first change of a large list after a snapshot
+	 * takes time linear in the size of the list while holding the write lock,
+	 * roughly 3 ms for 100,000 and 35 ms for 1,000,000 children (measured on a desktop CPU).
+	 * As snapshots are only taken when the variables are saved, this happens at most once per list and save.
+	 *
+	 * @return the copy.
+	 */
+	VariableNode copyShared() {
+		assert shared;
+		VariableNode copy = new VariableNode(new HashMap<>(children));
+		for (Object child : children.values()) {
+			if (child instanceof VariableNode)
+				((VariableNode) child).shared = true;
+		}
+		synchronized (this) {
+			if (addedKeys == null && removedKeys == 0)
+				copy.sortedKeys = sortedKeys;
+		}
+		return copy;
+	}
+
+	@Override
+	@Nullable
+	public Object get(@Nullable Object key) {
+		return children.get(key);
+	}
+
+	@Override
+	public boolean containsKey(@Nullable Object key) {
+		return children.containsKey(key);
+	}
+
+	@Override
+	@Nullable
+	public Object put(@Nullable String key, Object value) {
+		assert value != null : key;
+		assert !shared : key;
+		Object oldValue = children.put(key, value);
+		if (oldValue == null && sortedKeys != null) {
+			if (addedKeys == null)
+				addedKeys = new ArrayList<>(4);
+			addedKeys.add(key);
+			// Sorting from scratch is about as fast by now, and this bounds the memory used for tracking changes
+			if (addedKeys.size() > children.size())
+				invalidateSortedKeys();
+		}
+		return oldValue;
+	}
+
+	@Override
+	@Nullable
+	public Object remove(@Nullable Object key) {
+		assert !shared : key;
+		Object oldValue = children.remove(key);
+		if (oldValue != null && sortedKeys != null && ++removedKeys > children.size())
+			invalidateSortedKeys();
+		return oldValue;
+	}
+
+	@Override
+	public void clear() {
+		assert !shared;
+		children.clear();
+		invalidateSortedKeys();
+	}
+
+	@Override
+	public int size() {
+		return children.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return children.isEmpty();
+	}
+
+	/**
+	 * Counts the variables stored in this node and its subtrees.
+	 * Unlike iterating the node, this doesn't sort the keys of any node.
+	 *
+	 * @return the amount of variables.
+	 */
+	int countVariables() {
+		int count = 0;
+		for (Object child : children.values()) {
+			if (child instanceof VariableNode) {
+				count += ((VariableNode) child).countVariables();
+			} else {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				return new EntryIterator(getSortedKeys());
+			}
+
+			@Override
+			public int size() {
+				return children.size();
+			}
+		};
+	}
+
+	private void invalidateSortedKeys() {
+		sortedKeys = null;
+		addedKeys = null;
+		removedKeys = 0;
+	}
+
+	/**
+	 * Gets the keys of this node in sorted order, updating {@link #sortedKeys} if needed.
+	 * <p>
+	 * Synchronized as multiple threads holding the read lock of the variables may iterate the same node.
+	 *
+	 * @return the sorted keys, which may not be modified.
+	 */
+	private synchronized String[] getSortedKeys() {
+		String[] sortedKeys = this.sortedKeys;
+		if (sortedKeys != null && addedKeys == null && removedKeys == 0)
+			return sortedKeys;
+
+		String[] keys = sortedKeys == null ? null : mergeKeys(sortedKeys);
+		if (keys == null) {
+			keys = children.isEmpty() ? EMPTY_KEYS : children.keySet().toArray(EMPTY_KEYS);
+			Arrays.sort(keys, VariablesMap.VARIABLE_NAME_COMPARATOR);
+		}
+
+		this.sortedKeys = keys;
+		addedKeys = null;
+		removedKeys = 0;
+		return keys;
+	}
+
+	/**
+	 * Merges the keys added since the last sort into the given previously sorted keys,
+	 * skipping keys that have been removed since.
+	 *
+	 * @param sortedKeys the previously sorted keys.
+	 * @return the merged keys, or {@code null} if they have to be sorted from scratch instead.
+	 */
+	private String @Nullable [] mergeKeys(String[] sortedKeys) {
+		String[] added = addedKeys == null ? EMPTY_KEYS : addedKeys.toArray(EMPTY_KEYS);
+		Arrays.sort(added, VariablesMap.VARIABLE_NAME_COMPARATOR);
+
+		String[] merged = new String[children.size()];
+		int size = 0;
+		int i = 0;
+		int j = 0;
+		while (i < sortedKeys.length || j < added.length) {
+			String key;
+			if (j == added.length || (i < sortedKeys.length && VariablesMap.VARIABLE_NAME_COMPARATOR.compare(sortedKeys[i], added[j]) <= 0)) {
+				key = sortedKeys[i++];
+			} else {
+				key = added[j++];
+			}
+
+			// Skip removed keys and keys that were removed and added again
+			if (!children.containsKey(key) || (size > 0 && Objects.equals(merged[size - 1], key)))
+				continue;
+			if (size == merged.length)
+				return null;
+			merged[size++] = key;
+		}
+		return size == merged.length ? merged : null;
+	}
+
+	/**
+	 * Iterates over a snapshot of the sorted keys, skipping keys that have been removed in the meantime.
+	 */
+	private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+		private final String[] keys;
+		private int index = 0;
+
+		@Nullable
+		private Entry<String, Object> next;
+		@Nullable
+		private String lastKey;
+		private boolean canRemove = false;
+
+		EntryIterator(String[] keys) {
+			this.keys = keys;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && index < keys.length) {
+				String key = keys[index++];
+				Object value = children.get(key);
+				if (value != null)
+					next = new SimpleImmutableEntry<>(key, value);
+			}
+			return next != null;
+		}
+
+		@Override
+		public Entry<String, Object> next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			Entry<String, Object> entry = next;
+			assert entry != null;
+			next = null;
+			lastKey = entry.getKey();
+			canRemove = true;
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			if (!canRemove)
+				throw new IllegalStateException();
+			VariableNode.this.remove(lastKey);
+			canRemove = false;
+		}
+
+	}
+
+}
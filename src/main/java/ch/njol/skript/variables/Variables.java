@@ -56,7 +56,6 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.TreeMap;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -64,7 +63,6 @@ import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import java.util.regex.Pattern;
 
 /**
  * Handles all things related to variables.
@@ -140,6 +138,13 @@ public class Variables {
 	 */
 	static final List<VariablesStorage> STORAGES = new ArrayList<>();
 
+	/**
+	 * @return the variable storages configured.
+	 */
+	public static List<VariablesStorage> getStorages() {
+		return Collections.unmodifiableList(STORAGES);
+	}
+
 	/**
 	 * Register a VariableStorage class for Skript to create if the user config value matches.
 	 * 
@@ -168,8 +173,7 @@ public class Variables {
 	 * @return whether the loading was successful.
 	 */
 	public static boolean load() {
-		assert variables.treeMap.isEmpty();
-		assert variables.hashMap.isEmpty();
+		assert variables.tree.isEmpty();
 		assert STORAGES.isEmpty();
 
 		Config config = SkriptConfig.getConfig();
@@ -307,20 +311,37 @@ public class Variables {
 		return true;
 	}
 
-	/**
-	 * A pattern to split variable names using {@link Variable#SEPARATOR}.
-	 */
-	private static final Pattern VARIABLE_NAME_SPLIT_PATTERN = Pattern.compile(Pattern.quote(Variable.SEPARATOR));
-
 	/**
 	 * Splits the given variable name into its parts,
 	 * separated by {@link Variable#SEPARATOR}.
+	 * <p>
+	 * This behaves like splitting on the separator with {@link java.util.regex.Pattern#split(CharSequence)},
+	 * i.e. trailing empty parts are removed, but without the overhead of the regex engine,
+	 * as this is called for every list variable access.
 	 *
 	 * @param name the variable name.
 	 * @return the parts.
 	 */
 	public static String[] splitVariableName(String name) {
-		return VARIABLE_NAME_SPLIT_PATTERN.split(name);
+		int separatorIndex = name.indexOf(Variable.SEPARATOR);
+		if (separatorIndex == -1)
+			return new String[] {name};
+
+		int separatorLength = Variable.SEPARATOR.length();
+		List<String> parts = new ArrayList<>(4);
+		int start = 0;
+		do {
+			parts.add(name.substring(start, separatorIndex));
+			start = separatorIndex + separatorLength;
+			separatorIndex = name.indexOf(Variable.SEPARATOR, start);
+		} while (separatorIndex != -1);
+		parts.add(name.substring(start));
+
+		// Remove trailing empty parts
+		int size = parts.size();
+		while (size > 0 && parts.get(size - 1).isEmpty())
+			size--;
+		return parts.subList(0, size).toArray(new String[0]);
 	}
 
 	/**
@@ -341,22 +362,37 @@ public class Variables {
 	private static final Map<Event, VariablesMap> localVariables = new ConcurrentHashMap<>();
 
 	/**
-	 * Gets the {@link TreeMap} of all global variables.
+	 * Gets the tree of all global variables, sorted when iterated.
 	 * <p>
 	 * Remember to lock with {@link #getReadLock()} and to not make any changes!
+	 *
+	 * @see VariableNode
+	 */
+	static Map<String, Object> getVariables() {
+		return variables.tree;
+	}
+
+	/**
+	 * Gets a snapshot of the tree of all global variables, sorted when iterated.
+	 * <p>
+	 * Taking the snapshot takes constant time and requires the {@link #getReadLock() read lock},
+	 * but the snapshot itself is never changed, so it can be used after the lock has been released.
+	 * Do not make any changes to it!
+	 *
+	 * @see VariablesMap#snapshot()
 	 */
-	static TreeMap<String, Object> getVariables() {
-		return variables.treeMap;
+	static Map<String, Object> getVariablesSnapshot() {
+		return variables.snapshot();
 	}
 
 	/**
-	 * Gets the {@link Map} of all global variables.
+	 * Gets a {@link Map} of all global variables, keyed by their full name.
 	 * <p>
-	 * This map cannot be modified.
+	 * The map is a snapshot and cannot be modified.
 	 * Remember to lock with {@link #getReadLock()}!
 	 */
 	static Map<String, Object> getVariablesHashMap() {
-		return Collections.unmodifiableMap(variables.hashMap);
+		return Collections.unmodifiableMap(variables.toFlatMap());
 	}
 
 	/**
@@ -450,23 +486,26 @@ public class Variables {
 
 			return map.getVariable(n);
 		} else {
-			// Prevent race conditions from returning variables with incorrect values
-			if (!changeQueue.isEmpty()) {
-				// Gets the last VariableChange made
-				VariableChange variableChange = changeQueue.stream()
-						.filter(change -> change.name.equals(n))
-						.reduce((first, second) -> second)
-								// Gets last value, as iteration is from head to tail,
-								//  and adding occurs at the tail (and we want the most recently added)
-						.orElse(null);
-
-				if (variableChange != null) {
-					return variableChange.value;
-				}
-			}
-
 			try {
 				variablesLock.readLock().lock();
+
+				// Prevent race conditions from returning variables with incorrect values
+				// The queue is only processed while holding the write lock, so it can't be processed while checking it,
+				//  which would skip the processed changes and could return an older queued change instead
+				if (!changeQueue.isEmpty()) {
+					// Gets the last VariableChange made,
+					//  as iteration is from head to tail and adding occurs at the tail
+					VariableChange variableChange = null;
+					for (VariableChange change : changeQueue) {
+						if (change.affects(n))
+							variableChange = change;
+					}
+
+					if (variableChange != null) {
+						return variableChange.value;
+					}
+				}
+
 				return variables.getVariable(n);
 			} finally {
 				variablesLock.readLock().unlock();
@@ -506,14 +545,7 @@ public class Variables {
 		// Check if conversion is needed due to ClassInfo#getSerializeAs
 		if (value != null) {
 			assert !name.endsWith("::*");
-
-			ClassInfo<?> ci = Classes.getSuperClassInfo(value.getClass());
-			Class<?> sas = ci.getSerializeAs();
-
-			if (sas != null) {
-				value = Converters.convert(value, sas);
-				assert value != null : ci + ", " + sas;
-			}
+			value = convertSerializeAs(value);
 		}
 
 		if (local) {
@@ -527,6 +559,86 @@ public class Variables {
 		}
 	}
 
+	/**
+	 * Changes multiple variables of a list variable at once, e.g. to replace its contents.
+	 * <p>
+	 * Changes to global variables are made while holding the write lock only once,
+	 * and are saved as one batch, which is much cheaper than
+	 * calling {@link #setVariable(String, Object, Event, boolean)} for every index.
+	 *
+	 * @param prefix the list variable's name with the trailing separator, but without the asterisk, e.g. {@code list::}.
+	 * @param clear whether to delete all variables in the list before making the changes.
+	 *              The value of the list variable itself (e.g. {@code {list}}) is kept.
+	 * @param changes the indices (which may contain the separator themselves) and their new values,
+	 *                in the order to apply them. Use {@code null} values to delete indices.
+	 * @param event if {@code local} is {@code true}, this is the event
+	 *                 the local variable resides in.
+	 * @param local if this variable is a local or global variable.
+	 */
+	public static void changeListVariable(String prefix, boolean clear, Map<String, Object> changes, @Nullable Event event, boolean local) {
+		assert prefix.endsWith(Variable.SEPARATOR) : prefix;
+		if (caseInsensitiveVariables)
+			prefix = prefix.toLowerCase(Locale.ENGLISH);
+
+		if (local) {
+			assert event != null : prefix;
+			VariablesMap map = localVariables.computeIfAbsent(event, e -> new VariablesMap());
+			if (clear)
+				map.setVariable(prefix + "*", null);
+			for (Entry<String, Object> change : changes.entrySet())
+				map.setVariable(getIndexName(prefix, change.getKey()), convertSerializeAs(change.getValue()));
+			return;
+		}
+
+		boolean gotLock = variablesLock.writeLock().tryLock();
+		if (!gotLock) {
+			// Couldn't acquire variable write lock, queue the changes (blocking here is a bad idea)
+			if (clear)
+				queueVariableChange(prefix + "*", null);
+			for (Entry<String, Object> change : changes.entrySet())
+				queueVariableChange(getIndexName(prefix, change.getKey()), convertSerializeAs(change.getValue()));
+			return;
+		}
+
+		try {
+			List<SerializedVariable> batch = new ArrayList<>(changes.size());
+			applyChangeQueue(batch);
+			if (clear)
+				setVariable(prefix + "*", null, batch);
+			for (Entry<String, Object> change : changes.entrySet())
+				setVariable(getIndexName(prefix, change.getKey()), convertSerializeAs(change.getValue()), batch);
+			if (!batch.isEmpty())
+				saveQueue.add(batch);
+		} finally {
+			variablesLock.writeLock().unlock();
+		}
+	}
+
+	private static String getIndexName(String prefix, String index) {
+		return caseInsensitiveVariables ? prefix + index.toLowerCase(Locale.ENGLISH) : prefix + index;
+	}
+
+	/**
+	 * Converts the given value if its {@link ClassInfo#getSerializeAs() class info} requires it.
+	 *
+	 * @param value the value, or {@code null}.
+	 * @return the value to store.
+	 */
+	@Nullable
+	private static Object convertSerializeAs(@Nullable Object value) {
+		if (value == null)
+			return null;
+
+		ClassInfo<?> ci = Classes.getSuperClassInfo(value.getClass());
+		Class<?> sas = ci.getSerializeAs();
+
+		if (sas != null) {
+			value = Converters.convert(value, sas);
+			assert value != null : ci + ", " + sas;
+		}
+		return value;
+	}
+
 	/**
 	 * Sets the given global variable name to the given value.
 	 *
@@ -537,12 +649,13 @@ public class Variables {
 		boolean gotLock = variablesLock.writeLock().tryLock();
 		if (gotLock) {
 			try {
-				// Set the variable
-				variables.setVariable(name, value);
-				// ..., save the variable change
-				saveVariableChange(name, value);
-				// ..., and process all previously queued changes
-				processChangeQueue();
+				// Process all previously queued changes first, as they were made before this one,
+				//  then set the variable and save all changes
+				List<SerializedVariable> batch = new ArrayList<>(1);
+				applyChangeQueue(batch);
+				setVariable(name, value, batch);
+				if (!batch.isEmpty())
+					saveQueue.add(batch);
 			} finally {
 				variablesLock.writeLock().unlock();
 			}
@@ -584,6 +697,18 @@ public class Variables {
 			this.value = value;
 		}
 
+		/**
+		 * @param name the name of a variable.
+		 * @return whether this change sets or deletes the given variable,
+		 * which includes the deletion of a list variable deleting all variables in the list.
+		 */
+		public boolean affects(String name) {
+			if (this.name.equals(name))
+				return true;
+			return value == null && this.name.endsWith(Variable.SEPARATOR + "*")
+				&& name.regionMatches(0, this.name, 0, this.name.length() - 1);
+		}
+
 	}
 
 	/**
@@ -604,17 +729,65 @@ public class Variables {
 	 * then release it.
 	 */
 	static void processChangeQueue() {
+		processChangeQueue(new ArrayList<>());
+	}
+
+	/**
+	 * Processes all entries in variable change queue,
+	 * then saves the given batch of changes together with the queued changes.
+	 * <p>
+	 * Note that caller must acquire write lock before calling this,
+	 * then release it.
+	 *
+	 * @param batch the changes made so far, which haven't been saved yet.
+	 */
+	private static void processChangeQueue(List<SerializedVariable> batch) {
+		applyChangeQueue(batch);
+		if (!batch.isEmpty())
+			saveQueue.add(batch);
+	}
+
+	/**
+	 * Performs all entries in variable change queue, adding them to the given batch of changes to save.
+	 * This has to be done before making any other change, as the queued changes were made before it.
+	 * <p>
+	 * Note that caller must acquire write lock before calling this.
+	 *
+	 * @param batch the changes to save.
+	 */
+	private static void applyChangeQueue(List<SerializedVariable> batch) {
 		while (true) { // Run as long as we still have changes
 			VariableChange change = changeQueue.poll();
 			if (change == null)
 				break;
 
 			// Set and save variable
-			variables.setVariable(change.name, change.value);
-			saveVariableChange(change.name, change.value);
+			setVariable(change.name, change.value, batch);
 		}
 	}
 
+	/**
+	 * Sets the given global variable and adds the change to the given batch of changes to save.
+	 * Deleting a list variable adds the deletion of every variable in the list to the batch.
+	 * <p>
+	 * Note that caller must acquire write lock before calling this.
+	 *
+	 * @param name the variable name.
+	 * @param value the value, or {@code null} to delete the variable.
+	 * @param batch the changes to save.
+	 */
+	private static void setVariable(String name, @Nullable Object value, List<SerializedVariable> batch) {
+		if (value == null && name.endsWith(Variable.SEPARATOR + "*")) {
+			List<String> names = new ArrayList<>();
+			variables.collectListVariableNames(name.substring(0, name.length() - 1), names);
+			for (String variableName : names)
+				batch.add(serialize(variableName, null));
+		} else {
+			batch.add(serialize(name, value));
+		}
+		variables.setVariable(name, value);
+	}
+
 	/**
 	 * Stores loaded variables while variable storages are being loaded.
 	 * <p>
@@ -706,7 +879,50 @@ public class Variables {
 			variablesLock.writeLock().unlock();
 		}
 
-		// Move the variable to the right storage
+		return moveToStorage(name, value, source);
+	}
+
+	/**
+	 * Sets variables that were changed in the given storage by another server,
+	 * and moves them to the appropriate database if the config was changed.
+	 * <p>
+	 * Unlike calling {@link #variableLoaded(String, Object, VariablesStorage)} for each variable,
+	 * this only acquires the variables lock once for all changes.
+	 * Must be called on Bukkit's main thread, without holding any database locks.
+	 *
+	 * @param changes the changed variables by their name, in the order they were changed.
+	 * @param source the storage the variables came from.
+	 */
+	static void variablesChanged(Map<String, Object> changes, VariablesStorage source) {
+		assert Bukkit.isPrimaryThread(); // required by serialisation
+
+		synchronized (TEMP_VARIABLES) {
+			if (TEMP_VARIABLES.get() != null) {
+				// Still loading, the changes have to be checked for conflicts
+				for (Entry<String, Object> change : changes.entrySet())
+					variableLoaded(change.getKey(), change.getValue(), source);
+				return;
+			}
+		}
+
+		variablesLock.writeLock().lock();
+		try {
+			for (Entry<String, Object> change : changes.entrySet())
+				variables.setVariable(change.getKey(), change.getValue());
+		} finally {
+			variablesLock.writeLock().unlock();
+		}
+
+		for (Entry<String, Object> change : changes.entrySet())
+			moveToStorage(change.getKey(), change.getValue(), source);
+	}
+
+	/**
+	 * Moves the given variable to the storage that accepts it, if that isn't the storage it came from.
+	 *
+	 * @return Whether the variable was stored somewhere.
+	 */
+	private static boolean moveToStorage(String name, Object value, VariablesStorage source) {
 		try {
 			for (VariablesStorage variablesStorage : STORAGES) {
 				if (variablesStorage.accept(name)) {
@@ -813,20 +1029,10 @@ public class Variables {
 	}
 
 	/**
-	 * Serializes and adds the variable change to the {@link #saveQueue}.
-	 *
-	 * @param name the variable name.
-	 * @param value the value of the variable.
-	 */
-	private static void saveVariableChange(String name, @Nullable Object value) {
-		saveQueue.add(serialize(name, value));
-	}
-
-	/**
-	 * The queue of serialized variables that have not yet been written
+	 * The queue of batches of serialized variables that have not yet been written
 	 * to the storage.
 	 */
-	static final BlockingQueue<SerializedVariable> saveQueue = new LinkedBlockingQueue<>();
+	static final BlockingQueue<List<SerializedVariable>> saveQueue = new LinkedBlockingQueue<>();
 
 	/**
 	 * Whether the {@link #saveThread} should be stopped.
@@ -839,14 +1045,16 @@ public class Variables {
 	private static final Thread saveThread = Skript.newThread(() -> {
 		while (!closed) {
 			try {
-				// Save one variable change
-				SerializedVariable variable = saveQueue.take();
+				// Save one batch of variable changes
+				List<SerializedVariable> batch = saveQueue.take();
 
-				for (VariablesStorage variablesStorage : STORAGES) {
-					if (variablesStorage.accept(variable.name)) {
-						variablesStorage.save(variable);
+				for (SerializedVariable variable : batch) {
+					for (VariablesStorage variablesStorage : STORAGES) {
+						if (variablesStorage.accept(variable.name)) {
+							variablesStorage.save(variable);
 
-						break;
+							break;
+						}
 					}
 				}
 			} catch (InterruptedException ignored) {}
@@ -888,7 +1096,7 @@ public class Variables {
 	public static int numVariables() {
 		try {
 			variablesLock.readLock().lock();
-			return variables.hashMap.size();
+			return variables.size();
 		} finally {
 			variablesLock.readLock().unlock();
 		}
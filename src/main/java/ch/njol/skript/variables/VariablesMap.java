@@ -22,14 +22,18 @@ import ch.njol.skript.lang.Variable;
 import ch.njol.util.StringUtils;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.TreeMap;
 
 /**
  * A map for storing variables in a sorted and efficient manner.
+ * <p>
+ * Variables are stored once, in a tree of {@link VariableNode}s branched by the list structure of the variables.
+ * Each node gives constant time access to its children, so getting a variable only takes one lookup per part of its name,
+ * while list variables can still be iterated in sorted order.
  */
 final class VariablesMap {
 
@@ -139,13 +143,24 @@ final class VariablesMap {
 	};
 
 	/**
-	 * The map that stores all non-list variables.
+	 * The tree of variables, branched by the list structure of the variables.
+	 * Replaced by a copy when it is modified after a {@link #snapshot()}.
 	 */
-	final HashMap<String, Object> hashMap = new HashMap<>();
+	VariableNode tree;
+
 	/**
-	 * The tree of variables, branched by the list structure of the variables.
+	 * The amount of variables stored in this map.
 	 */
-	final TreeMap<String, Object> treeMap = new TreeMap<>();
+	private int size;
+
+	VariablesMap() {
+		this(new VariableNode(), 0);
+	}
+
+	private VariablesMap(VariableNode tree, int size) {
+		this.tree = tree;
+		this.size = size;
+	}
 
 	/**
 	 * Returns the internal value of the requested variable.
@@ -157,43 +172,83 @@ final class VariablesMap {
 	 * {@code Map<String, Object>} for a list variable,
 	 * or {@code null} if the variable is not set.
 	 */
-	@SuppressWarnings("unchecked")
 	@Nullable
 	Object getVariable(String name) {
-		if (!name.endsWith("*")) {
-			// Not a list variable, quick access from the hash map
-			return hashMap.get(name);
-		} else {
-			// List variable, search the tree branches
-			String[] split = Variables.splitVariableName(name);
-			Map<String, Object> parent = treeMap;
-
-			// Iterate over the parts of the variable name
-			for (int i = 0; i < split.length; i++) {
-				String n = split[i];
-				if (n.equals("*")) {
-					// End of variable name, return map
-					assert i == split.length - 1;
-					return parent;
-				}
+		boolean list = name.endsWith("*");
+		VariableNode parent = tree;
+
+		// Iterate over the parts of the variable name without splitting it up front
+		int start = 0;
+		while (true) {
+			int end = name.indexOf(Variable.SEPARATOR, start);
+			boolean last = end == -1;
+			String n = last ? name.substring(start) : name.substring(start, end);
+			if (n.isEmpty()) {
+				// Empty parts are rare, and trailing ones are dropped when splitting the name
+				return getVariable(Variables.splitVariableName(name), list);
+			}
 
-				// Check if the current (sub-)tree has the expected child node
-				Object childNode = parent.get(n);
-				if (childNode == null)
-					return null;
+			if (list && n.equals("*")) {
+				// End of variable name, return map
+				assert last;
+				return parent;
+			}
 
-				// Continue the iteration if the child node is a tree itself
-				if (childNode instanceof Map) {
-					// Continue iterating with the subtree
-					parent = (Map<String, Object>) childNode;
-					assert i != split.length - 1;
-				} else {
-					// ..., otherwise the list variable doesn't exist here
-					return null;
-				}
+			Object childNode = getChild(parent, n, last, list);
+			if (last)
+				return childNode;
+			// Continue the iteration if the child node is a tree itself, otherwise the variable doesn't exist here
+			if (!(childNode instanceof VariableNode))
+				return null;
+			parent = (VariableNode) childNode;
+			start = end + Variable.SEPARATOR.length();
+		}
+	}
+
+	@Nullable
+	private Object getVariable(String[] split, boolean list) {
+		VariableNode parent = tree;
+
+		// Iterate over the parts of the variable name
+		for (int i = 0; i < split.length; i++) {
+			String n = split[i];
+			if (list && n.equals("*")) {
+				// End of variable name, return map
+				assert i == split.length - 1;
+				return parent;
 			}
-			return null;
+
+			boolean last = i == split.length - 1;
+			Object childNode = getChild(parent, n, last, list);
+			if (last)
+				return childNode;
+			// Continue the iteration if the child node is a tree itself, otherwise the variable doesn't exist here
+			if (!(childNode instanceof VariableNode))
+				return null;
+			parent = (VariableNode) childNode;
 		}
+		return null;
+	}
+
+	/**
+	 * Gets the child node for the given part of a variable name.
+	 *
+	 * @param parent the node to get the child of.
+	 * @param n the part of the variable name.
+	 * @param last whether this is the last part of the variable name.
+	 * @param list whether the variable name is one of a list variable.
+	 * @return the subtree to continue with, the value of the variable if this is its last part,
+	 * or {@code null} if the variable doesn't exist.
+	 */
+	@Nullable
+	private static Object getChild(VariableNode parent, String n, boolean last, boolean list) {
+		Object childNode = parent.get(n);
+		if (!last || childNode == null)
+			return childNode;
+		// End of the variable name, a list variable's own value is stored with the null key
+		if (list)
+			return null;
+		return childNode instanceof VariableNode ? ((VariableNode) childNode).get(null) : childNode;
 	}
 
 	/**
@@ -205,19 +260,11 @@ final class VariablesMap {
 	 * @param name the variable name.
 	 * @param value the variable value, {@code null} to delete the variable.
 	 */
-	@SuppressWarnings("unchecked")
 	void setVariable(String name, @Nullable Object value) {
-		// First update the hash map easily
-		if (!name.endsWith("*")) {
-			if (value == null)
-				hashMap.remove(name);
-			else
-				hashMap.put(name, value);
-		}
-
-		// Then update the tree map by going down the branches
 		String[] split = Variables.splitVariableName(name);
-		TreeMap<String, Object> parent = treeMap;
+		if (tree.isShared())
+			tree = tree.copyShared();
+		VariableNode parent = tree;
 
 		// Iterate over the parts of the variable name
 		for (int i = 0; i < split.length; i++) {
@@ -228,66 +275,77 @@ final class VariablesMap {
 				// Expected child node not found
 				if (i == split.length - 1) {
 					// End of the variable name reached, set variable if needed
-					if (value != null)
+					if (value != null) {
 						parent.put(childNodeName, value);
+						size++;
+					}
 
 					break;
 				} else if (value != null) {
 					// Create child node, add it to parent and continue iteration
-					childNode = new TreeMap<>(VARIABLE_NAME_COMPARATOR);
+					VariableNode childNodeMap = new VariableNode();
 
-					parent.put(childNodeName, childNode);
-					parent = (TreeMap<String, Object>) childNode;
+					parent.put(childNodeName, childNodeMap);
+					parent = childNodeMap;
 				} else {
-					// Want to set variable to null, bu variable is already null
+					// Want to set variable to null, but variable is already null
 					break;
 				}
-			} else if (childNode instanceof TreeMap) {
+			} else if (childNode instanceof VariableNode) {
 				// Child node found
-				TreeMap<String, Object> childNodeMap = ((TreeMap<String, Object>) childNode);
+				VariableNode childNodeMap = (VariableNode) childNode;
 
 				if (i == split.length - 1) {
 					// End of variable name reached, adjust child node accordingly
-					if (value == null)
-						childNodeMap.remove(null);
-					else
-						childNodeMap.put(null, value);
+					childNodeMap = copyIfShared(parent, childNodeName, childNodeMap);
+					Object oldValue;
+					if (value == null) {
+						oldValue = childNodeMap.remove(null);
+						if (oldValue != null)
+							size--;
+					} else {
+						oldValue = childNodeMap.put(null, value);
+						if (oldValue == null)
+							size++;
+					}
 
 					break;
 				} else if (i == split.length - 2 && split[i + 1].equals("*")) {
 					// Second to last part of variable name
 					assert value == null;
 
-					// Delete all indices of the list variable from hashMap
-					deleteFromHashMap(StringUtils.join(split, Variable.SEPARATOR, 0, i + 1), childNodeMap);
-
 					// If the list variable itself has a value ,
 					//  e.g. list `{mylist::3}` while variable `{mylist}` also has a value,
 					//  then adjust the parent for that
 					Object currentChildValue = childNodeMap.get(null);
-					if (currentChildValue == null)
+					size -= childNodeMap.countVariables();
+					if (currentChildValue == null) {
 						parent.remove(childNodeName);
-					else
+					} else {
 						parent.put(childNodeName, currentChildValue);
+						size++;
+					}
 
 					break;
 				} else {
 					// Continue iteration
-					parent = childNodeMap;
+					parent = copyIfShared(parent, childNodeName, childNodeMap);
 				}
 			} else {
 				// Ran into leaf node
 				if (i == split.length - 1) {
 					// If we arrived at the end of the variable name, update parent
-					if (value == null)
+					if (value == null) {
 						parent.remove(childNodeName);
-					else
+						size--;
+					} else {
 						parent.put(childNodeName, value);
+					}
 
 					break;
 				} else if (value != null) {
 					// Need to continue iteration, create new child node and put old value in it
-					TreeMap<String, Object> newChildNodeMap = new TreeMap<>(VARIABLE_NAME_COMPARATOR);
+					VariableNode newChildNodeMap = new VariableNode();
 					newChildNodeMap.put(null, childNode);
 
 					// Add new child node to parent
@@ -301,72 +359,110 @@ final class VariablesMap {
 	}
 
 	/**
-	 * Deletes all indices of a list variable from the {@link #hashMap}.
+	 * Replaces the given child node of the given parent with a modifiable copy if it is part of a snapshot.
 	 *
-	 * @param parent the list variable prefix,
-	 *                  e.g. {@code list} for {@code list::*}.
-	 * @param current the map of the list variable.
+	 * @param parent the modifiable parent node.
+	 * @param name the name of the child node in the parent.
+	 * @param node the child node.
+	 * @return the node that can be modified.
 	 */
-	@SuppressWarnings("unchecked")
-	void deleteFromHashMap(String parent, TreeMap<String, Object> current) {
-		for (Entry<String, Object> e : current.entrySet()) {
-			if (e.getKey() == null)
-				continue;
-			String childName = parent + Variable.SEPARATOR + e.getKey();
-
-			// Remove from hashMap
-			hashMap.remove(childName);
-
-			// Recurse if needed
-			Object val = e.getValue();
-			if (val instanceof TreeMap) {
-				deleteFromHashMap(childName, (TreeMap<String, Object>) val);
-			}
-		}
+	private static VariableNode copyIfShared(VariableNode parent, String name, VariableNode node) {
+		if (!node.isShared())
+			return node;
+		VariableNode copy = node.copyShared();
+		parent.put(name, copy);
+		return copy;
 	}
 
 	/**
-	 * Creates a copy of this map.
+	 * Creates a consistent snapshot of the variables in this map in constant time.
+	 * <p>
+	 * The returned tree is never modified: changes made to this map afterwards copy the nodes they modify,
+	 * each of them only the first time it is modified after the snapshot.
+	 * The snapshot can thus be read without holding any locks.
 	 *
-	 * @return the copy.
+	 * @return the snapshot of the tree of variables.
 	 */
-	public VariablesMap copy() {
-		VariablesMap copy = new VariablesMap();
-
-		copy.hashMap.putAll(hashMap);
-
-		TreeMap<String, Object> treeMapCopy = copyTreeMap(treeMap);
-		copy.treeMap.putAll(treeMapCopy);
+	Map<String, Object> snapshot() {
+		tree.markShared();
+		return tree;
+	}
 
-		return copy;
+	/**
+	 * @return the amount of variables stored in this map.
+	 */
+	int size() {
+		return size;
 	}
 
 	/**
-	 * Makes a deep copy of the given {@link TreeMap}.
-	 * <p>
-	 * The 'deep copy' means that each subtree of the given tree is copied
-	 * as well.
+	 * Collects all variables of this map by their full name.
 	 *
-	 * @param original the original tree map.
-	 * @return the copy.
+	 * @return a new map of all variables.
 	 */
-	@SuppressWarnings("unchecked")
-	private static TreeMap<String, Object> copyTreeMap(TreeMap<String, Object> original) {
-		TreeMap<String, Object> copy = new TreeMap<>(VARIABLE_NAME_COMPARATOR);
+	Map<String, Object> toFlatMap() {
+		Map<String, Object> map = new HashMap<>(size * 4 / 3 + 1);
+		flatten(map, "", tree);
+		return map;
+	}
 
-		for (Entry<String, Object> child : original.entrySet()) {
+	private static void flatten(Map<String, Object> map, String parent, VariableNode node) {
+		for (Entry<String, Object> child : node.entrySet()) {
 			String key = child.getKey();
 			Object value = child.getValue();
+			if (key == null) {
+				map.put(parent.substring(0, parent.length() - Variable.SEPARATOR.length()), value);
+			} else if (value instanceof VariableNode) {
+				flatten(map, parent + key + Variable.SEPARATOR, (VariableNode) value);
+			} else {
+				map.put(parent + key, value);
+			}
+		}
+	}
 
-			// Copy by recursion if the child is a TreeMap
-			if (value instanceof TreeMap) {
-				value = copyTreeMap((TreeMap<String, Object>) value);
+	/**
+	 * Collects the names of all variables in the given list variable, including the variables in nested lists,
+	 * but excluding the value of the list variable itself.
+	 *
+	 * @param prefix the list variable's name with the trailing separator, e.g. {@code list::}.
+	 * @param names the collection to add the names to.
+	 */
+	void collectListVariableNames(String prefix, Collection<String> names) {
+		Object list = getVariable(prefix + "*");
+		if (!(list instanceof VariableNode))
+			return;
+		for (Entry<String, Object> child : ((VariableNode) list).entrySet()) {
+			String key = child.getKey();
+			if (key == null)
+				continue; // The value of the list variable itself
+			if (child.getValue() instanceof VariableNode) {
+				collectNames(names, prefix + key + Variable.SEPARATOR, (VariableNode) child.getValue());
+			} else {
+				names.add(prefix + key);
 			}
+		}
+	}
 
-			copy.put(key, value);
+	private static void collectNames(Collection<String> names, String parent, VariableNode node) {
+		for (Entry<String, Object> child : node.entrySet()) {
+			String key = child.getKey();
+			if (key == null) {
+				names.add(parent.substring(0, parent.length() - Variable.SEPARATOR.length()));
+			} else if (child.getValue() instanceof VariableNode) {
+				collectNames(names, parent + key + Variable.SEPARATOR, (VariableNode) child.getValue());
+			} else {
+				names.add(parent + key);
+			}
 		}
+	}
 
-		return copy;
+	/**
+	 * Creates a copy of this map.
+	 *
+	 * @return the copy.
+	 */
+	public VariablesMap copy() {
+		return new VariablesMap(new VariableNode(tree), size);
 	}
 
 }
@@ -122,6 +122,13 @@ public abstract class VariablesStorage implements Closeable {
 		}, "Skript variable save thread for database '" + name + "'");
 	}
 
+	/**
+	 * @return the name of this storage, as configured in the config.
+	 */
+	public String getDatabaseName() {
+		return databaseName;
+	}
+
 	/**
 	 * Gets the string value at the given key of the given section node.
 	 *
@@ -129,6 +129,9 @@ public abstract class StringUtils {
 		assert accuracy >= 0;
 		if (accuracy <= 0)
 			return "" + Math.round(d);
+		final double abs = Math.abs(d);
+		if (abs >= FAST_FORMAT_MIN && abs < FAST_FORMAT_MAX)
+			return toStringFast(d, accuracy);
 		final String s = String.format(Locale.ENGLISH, "%." + accuracy + "f", d);
 		int c = s.length() - 1;
 		while (s.charAt(c) == '0')
@@ -138,6 +141,56 @@ public abstract class StringUtils {
 		return "" + s.substring(0, c + 1);
 	}
 	
+	/**
+	 * Within this range, {@link Double#toString(double)} never uses scientific notation.
+	 */
+	private final static double FAST_FORMAT_MIN = 1e-3, FAST_FORMAT_MAX = 1e7;
+	
+	/**
+	 * Formats a number like <code>String.format("%.<i>accuracy</i>f", d)</code> with trailing zeros removed,
+	 * without going through a {@link java.util.Formatter}.
+	 * Like the formatter, this rounds the shortest decimal representation of the number half up.
+	 * 
+	 * @param d A number with an absolute value between {@link #FAST_FORMAT_MIN} and {@link #FAST_FORMAT_MAX}
+	 * @param accuracy Maximum number of digits after the period, at least 1
+	 */
+	private static String toStringFast(final double d, final int accuracy) {
+		final String s = Double.toString(Math.abs(d));
+		final int point = s.indexOf('.');
+		assert point != -1 && s.indexOf('E') == -1 : s;
+		final int digits = Math.min(s.length(), point + 1 + accuracy);
+		
+		// The first two chars are reserved for the sign and a leading digit that rounding might carry over to
+		final char[] chars = new char[digits + 2];
+		chars[1] = '0';
+		s.getChars(0, digits, chars, 2);
+		
+		if (digits < s.length() && s.charAt(digits) >= '5') {
+			for (int i = chars.length - 1; i >= 1; i--) {
+				final char c = chars[i];
+				if (c == '.')
+					continue;
+				if (c != '9') {
+					chars[i]++;
+					break;
+				}
+				chars[i] = '0';
+			}
+		}
+		
+		// Remove trailing zeros after the period
+		int end = chars.length;
+		while (chars[end - 1] == '0')
+			end--;
+		if (chars[end - 1] == '.')
+			end--;
+		
+		int start = chars[1] == '0' ? 2 : 1;
+		if (d < 0)
+			chars[--start] = '-';
+		return new String(chars, start, end - start);
+	}
+	
 	public static String firstToUpper(final String s) {
 		if (s.isEmpty())
 			return s;
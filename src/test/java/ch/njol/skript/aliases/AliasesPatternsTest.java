@@ -0,0 +1,155 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.aliases;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jetbrains.annotations.Nullable;
+import org.junit.Test;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.localization.Language;
+import ch.njol.skript.localization.RegexMessage;
+import ch.njol.skript.util.Utils;
+import ch.njol.util.coll.iterator.EnumerationIterable;
+
+/**
+ * Tests that the prefix parsing {@link Aliases} uses, which skips the amount, 'every' and 'any' patterns that can't match,
+ * gives the same results as trying every pattern, in every language.
+ */
+public class AliasesPatternsTest {
+
+	private static final String[] TOKENS = {
+		"", "0", "1", "23", "\u0663", "of", "OF", "every", "Every", "all", "any", "any:",
+		"a", "an", "stone", "block", "s", " ", "\t", " ", "9x", "x9"
+	};
+
+	@Test
+	public void testSkippedPatterns() throws IOException {
+		String language = Language.getName();
+		try {
+			for (String name : getLanguages()) {
+				Language.load(name);
+				for (String input : getInputs())
+					assertSameMatches(name, input);
+			}
+		} finally {
+			Language.load(language);
+		}
+	}
+
+	private static List<String> getLanguages() throws IOException {
+		File file = Skript.getAddonInstance().getFile();
+		assertNotNull(file);
+		List<String> languages = new ArrayList<>();
+		try (ZipFile jar = new ZipFile(file)) {
+			for (ZipEntry entry : new EnumerationIterable<>(jar.entries())) {
+				String name = entry.getName();
+				if (name.startsWith("lang/") && name.endsWith(".lang") && !name.endsWith("/default.lang"))
+					languages.add(name.substring("lang/".length(), name.length() - ".lang".length()));
+			}
+		}
+		return languages;
+	}
+
+	/**
+	 * @return All combinations of up to three tokens, separated by spaces or nothing,
+	 * along with the words of the current language that item types may contain.
+	 */
+	private static Set<String> getInputs() {
+		List<String> tokens = new ArrayList<>(Arrays.asList(TOKENS));
+		tokens.add(Language.get("of"));
+		tokens.add(Language.get("and"));
+		Set<String> inputs = new LinkedHashSet<>();
+		for (String first : tokens) {
+			inputs.add(first);
+			for (String second : tokens) {
+				inputs.add(first + second);
+				inputs.add(first + " " + second);
+				for (String third : tokens)
+					inputs.add(first + " " + second + " " + third);
+			}
+		}
+		return inputs;
+	}
+
+	private static void assertSameMatches(String language, String input) {
+		String message = "'" + input + "' in " + language;
+
+		// Aliases#parseItemType
+		ItemType type = new ItemType();
+		String rest = Aliases.parsePrefix(input, type);
+		String actual = rest == null ? null : type.getAmount() + ", " + type.isAll() + ", " + rest;
+		assertEquals(message, parsePrefix(input), actual);
+
+		// Aliases#getAlias
+		String lowerCase = input.toLowerCase(Locale.ENGLISH);
+		String expected = match(lowerCase, Aliases.p_any);
+		assertEquals(message, expected == null ? lowerCase : expected, Aliases.stripAnyPrefix(lowerCase));
+
+		// Aliases#parseType
+		assertEquals(message, input.matches("\\d+"), Aliases.isNumber(input));
+	}
+
+	/**
+	 * Parses the prefix like {@link Aliases#parsePrefix(String, ItemType)}, but tries every pattern.
+	 *
+	 * @return The amount, whether the item type means every item and the rest of the item type,
+	 * or null if it has no prefix.
+	 */
+	@Nullable
+	private static String parsePrefix(String input) {
+		ItemType type = new ItemType();
+		Matcher matcher;
+		if ((matcher = Aliases.p_of_every.matcher(input)).matches()) {
+			type.setAmount(Utils.parseInt(matcher.group(1)));
+			type.setAll(true);
+		} else if ((matcher = Aliases.p_of.matcher(input)).matches()) {
+			type.setAmount(Utils.parseInt(matcher.group(1)));
+		} else if ((matcher = Aliases.p_every.matcher(input)).matches()) {
+			type.setAll(true);
+		} else {
+			return null;
+		}
+		return type.getAmount() + ", " + type.isAll() + ", " + matcher.group(matcher.groupCount());
+	}
+
+	/**
+	 * @return The last group of the pattern if it matches the input, or null if it doesn't.
+	 */
+	@Nullable
+	private static String match(String input, RegexMessage pattern) {
+		Matcher matcher = pattern.matcher(input);
+		return matcher.matches() ? matcher.group(matcher.groupCount()) : null;
+	}
+
+}
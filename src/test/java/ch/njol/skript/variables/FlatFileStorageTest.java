@@ -20,10 +20,18 @@ package ch.njol.skript.variables;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.junit.Assume;
 import org.junit.Test;
 
+import ch.njol.skript.registrations.Classes;
+
 public class FlatFileStorageTest {
 
 	@Test
@@ -62,4 +70,58 @@ public class FlatFileStorageTest {
 		}
 	}
 
+	@Test
+	public void testChangesDuringSave() throws Exception {
+		String prefix = "flat file storage test::";
+		FlatFileStorage storage = null;
+		for (VariablesStorage candidate : Variables.STORAGES) {
+			if (candidate.accept(prefix + "0")) {
+				if (candidate instanceof FlatFileStorage)
+					storage = (FlatFileStorage) candidate;
+				break;
+			}
+		}
+		Assume.assumeTrue("The test variables aren't stored in a flat file", storage != null);
+		File file = storage.file;
+		assert file != null;
+
+		// More changes than fit into the storage's queue, which must not have to wait for the save
+		int amount = 3000;
+		FlatFileStorage savingStorage = storage;
+		Thread saveThread = new Thread(() -> savingStorage.saveVariables(false));
+		saveThread.start();
+		for (long i = 0; i < amount; i++)
+			Variables.setVariable(prefix + i, i, null, false);
+		saveThread.join();
+		Variables.setVariable(prefix + "done", true, null, false); // processes changes queued during the save
+
+		try {
+			// The changes are written by the storage's own thread
+			Map<String, String> saved = new HashMap<>();
+			long timeout = System.currentTimeMillis() + 10_000;
+			do {
+				Thread.sleep(50);
+				saved.clear();
+				for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+					String[] split = FlatFileStorage.splitCSV(line);
+					if (split == null || split.length != 3 || !split[0].startsWith(prefix))
+						continue;
+					if (split[1].equals("null")) {
+						saved.remove(split[0]);
+					} else {
+						saved.put(split[0], split[2]);
+					}
+				}
+			} while (saved.size() <= amount && System.currentTimeMillis() < timeout);
+
+			for (long i = 0; i < amount; i++) {
+				SerializedVariable.Value value = Classes.serialize(i);
+				assert value != null;
+				assertEquals(prefix + i, FlatFileStorage.encode(value.data), saved.get(prefix + i));
+			}
+		} finally {
+			Variables.setVariable(prefix + "*", null, null, false);
+		}
+	}
+
 }
@@ -0,0 +1,127 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class VariablesMapTest {
+
+	@Test
+	public void testGetAndSet() {
+		VariablesMap map = new VariablesMap();
+		map.setVariable("a", 1);
+		map.setVariable("a::b", 2);
+		map.setVariable("a::b::c", 3);
+
+		assertEquals(1, map.getVariable("a"));
+		assertEquals(2, map.getVariable("a::b"));
+		assertEquals(3, map.getVariable("a::b::c"));
+		assertNull(map.getVariable("a::c"));
+		assertNull(map.getVariable("a::b::c::d"));
+		assertEquals(3, map.size());
+
+		map.setVariable("a::b", null);
+		assertNull(map.getVariable("a::b"));
+		assertEquals(3, map.getVariable("a::b::c"));
+		assertEquals(2, map.size());
+
+		map.setVariable("a::*", null);
+		assertEquals(1, map.getVariable("a"));
+		assertNull(map.getVariable("a::b::c"));
+		assertEquals(1, map.size());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testListOrder() {
+		VariablesMap map = new VariablesMap();
+		for (String index : new String[] {"10", "b", "2", "-1", "a", "1"})
+			map.setVariable("list::" + index, index);
+
+		Map<String, Object> list = (Map<String, Object>) map.getVariable("list::*");
+		assertTrue(list != null);
+		assertEquals(Arrays.asList("-1", "1", "2", "10", "a", "b"), new ArrayList<>(list.keySet()));
+
+		// Changes after iterating must be merged into the sorted order
+		map.setVariable("list::3", "3");
+		map.setVariable("list::a", null);
+		assertEquals(Arrays.asList("-1", "1", "2", "3", "10", "b"), new ArrayList<>(list.keySet()));
+	}
+
+	@Test
+	public void testCopy() {
+		VariablesMap map = new VariablesMap();
+		map.setVariable("list::1", 1);
+		map.setVariable("list::2", 2);
+
+		VariablesMap copy = map.copy();
+		copy.setVariable("list::1", null);
+		assertEquals(1, map.getVariable("list::1"));
+		assertNull(copy.getVariable("list::1"));
+		assertEquals(2, map.size());
+		assertEquals(1, copy.size());
+	}
+
+	@Test
+	public void testCollectListVariableNames() {
+		VariablesMap map = new VariablesMap();
+		map.setVariable("list", 0);
+		map.setVariable("list::1", 1);
+		map.setVariable("list::2", 2);
+		map.setVariable("list::2::a", 3);
+		map.setVariable("list::3::b", 4);
+		map.setVariable("other::1", 5);
+
+		List<String> names = new ArrayList<>();
+		map.collectListVariableNames("list::", names);
+		assertEquals(Arrays.asList("list::1", "list::2", "list::2::a", "list::3::b"), names);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSnapshot() {
+		VariablesMap map = new VariablesMap();
+		map.setVariable("a", 1);
+		map.setVariable("list::1", 1);
+		map.setVariable("list::2", 2);
+
+		Map<String, Object> snapshot = map.snapshot();
+		map.setVariable("a", 2);
+		map.setVariable("list::1", null);
+		map.setVariable("list::3", 3);
+
+		assertEquals(1, snapshot.get("a"));
+		Map<String, Object> list = (Map<String, Object>) snapshot.get("list");
+		assertEquals(Arrays.asList("1", "2"), new ArrayList<>(list.keySet()));
+		assertEquals(2, map.getVariable("a"));
+		assertNull(map.getVariable("list::1"));
+		assertEquals(3, map.getVariable("list::3"));
+		assertEquals(3, map.size());
+	}
+
+}
@@ -0,0 +1,153 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Test;
+
+public class VariablesTest {
+
+	private static final String PREFIX = "variables test::";
+	private static final int VARIABLES = 100;
+	private static final int ROUNDS = 50;
+	private static final int READERS = 4;
+
+	/**
+	 * Sets the same global variables on the main thread, which serialization requires,
+	 * while other threads read them like asynchronous triggers do.
+	 * Readers must never see a variable go back to an older value, and list variables must only contain indices that were set.
+	 */
+	@Test
+	public void testConcurrentChanges() throws Exception {
+		Variables.setVariable(PREFIX + "*", null, null, false);
+		AtomicBoolean done = new AtomicBoolean();
+		ExecutorService executor = Executors.newFixedThreadPool(READERS);
+		try {
+			List<Future<Void>> readers = new ArrayList<>();
+			for (int i = 0; i < READERS; i++)
+				readers.add(executor.submit(() -> read(done)));
+
+			for (long round = 0; round < ROUNDS; round++) {
+				for (int i = 1; i <= VARIABLES; i++)
+					Variables.setVariable(PREFIX + i, round, null, false);
+			}
+			done.set(true);
+
+			for (Future<Void> reader : readers)
+				reader.get();
+		} finally {
+			done.set(true);
+			executor.shutdown();
+		}
+
+		for (int i = 1; i <= VARIABLES; i++)
+			assertEquals(PREFIX + i, ROUNDS - 1L, Variables.getVariable(PREFIX + i, null, false));
+		Variables.setVariable(PREFIX + "*", null, null, false);
+	}
+
+	@Test
+	public void testQueuedChanges() {
+		String name = PREFIX + "queued";
+		Lock lock = Variables.getReadLock();
+		lock.lock();
+		try {
+			// The write lock can't be acquired while holding the read lock, so the change is queued
+			Variables.setVariable(name, 1L, null, false);
+			assertEquals(1L, Variables.getVariable(name, null, false));
+		} finally {
+			lock.unlock();
+		}
+		// The queued change was made before this one, so it must not overwrite it
+		Variables.setVariable(name, 2L, null, false);
+		assertEquals(2L, Variables.getVariable(name, null, false));
+
+		String list = PREFIX + "queued list::";
+		Variables.setVariable(list + "1", 1L, null, false);
+		Variables.setVariable(list + "2", 2L, null, false);
+		Variables.setVariable(list + "sub::1", 1L, null, false);
+		lock.lock();
+		try {
+			// Clearing the list is queued as a single deletion, which must hide all of its variables
+			Variables.changeListVariable(list, true, Collections.singletonMap("2", 3L), null, false);
+			assertNull(Variables.getVariable(list + "1", null, false));
+			assertEquals(3L, Variables.getVariable(list + "2", null, false));
+			assertNull(Variables.getVariable(list + "sub::1", null, false));
+			assertEquals(2L, Variables.getVariable(name, null, false));
+		} finally {
+			lock.unlock();
+		}
+		Variables.setVariable(name, 4L, null, false);
+		assertNull(Variables.getVariable(list + "1", null, false));
+		assertEquals(3L, Variables.getVariable(list + "2", null, false));
+		assertNull(Variables.getVariable(list + "sub::1", null, false));
+		Variables.setVariable(PREFIX + "*", null, null, false);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Void read(AtomicBoolean done) {
+		long[] lastValues = new long[VARIABLES + 1];
+		Arrays.fill(lastValues, -1);
+		int lastSize = 0;
+		boolean finished;
+		do {
+			finished = done.get();
+			for (int i = 1; i <= VARIABLES; i++) {
+				Object value = Variables.getVariable(PREFIX + i, null, false);
+				if (value == null) {
+					assertEquals(PREFIX + i + " was deleted", -1, lastValues[i]);
+					continue;
+				}
+				long round = (Long) value;
+				assertTrue(PREFIX + i + " went back from " + lastValues[i] + " to " + round, round >= lastValues[i]);
+				lastValues[i] = round;
+			}
+
+			// The returned list may only be used while holding the read lock
+			List<String> indices;
+			Lock lock = Variables.getReadLock();
+			lock.lock();
+			try {
+				Map<String, Object> list = (Map<String, Object>) Variables.getVariable(PREFIX + "*", null, false);
+				indices = list == null ? Collections.emptyList() : new ArrayList<>(list.keySet());
+			} finally {
+				lock.unlock();
+			}
+			assertTrue("the list shrank from " + lastSize + " to " + indices.size(), indices.size() >= lastSize);
+			for (int i = 0; i < indices.size(); i++)
+				assertEquals(String.valueOf(i + 1), indices.get(i));
+			lastSize = indices.size();
+		} while (!finished);
+		return null;
+	}
+
+}
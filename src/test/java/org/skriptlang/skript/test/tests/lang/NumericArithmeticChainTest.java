@@ -0,0 +1,136 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package org.skriptlang.skript.test.tests.lang;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.skriptlang.skript.lang.arithmetic.Arithmetics;
+import org.skriptlang.skript.lang.arithmetic.Operation;
+import org.skriptlang.skript.lang.arithmetic.Operator;
+
+import ch.njol.skript.expressions.arithmetic.ArithmeticChain;
+import ch.njol.skript.expressions.arithmetic.ArithmeticGettable;
+import ch.njol.skript.expressions.arithmetic.NumericArithmeticChain;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.util.ContextlessEvent;
+import ch.njol.skript.lang.util.SimpleLiteral;
+
+/**
+ * Tests the unboxed calculations of {@link NumericArithmeticChain} against the boxed number operations of {@link Arithmetics}.
+ */
+public class NumericArithmeticChainTest {
+
+	private static final Number[] NUMBERS = {
+		0L, 1L, -1L, 7L, 3, Long.MAX_VALUE, Long.MIN_VALUE, 1L << 40,
+		0.0, -0.0, 0.5, -2.5, 1.5f, 1e300, -1e300, Double.MIN_VALUE,
+		Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+	};
+
+	@Test
+	public void testSingleOperations() {
+		for (Operator operator : Operator.values()) {
+			for (Number left : NUMBERS) {
+				for (Number right : NUMBERS)
+					assertChain(new Number[] {left, right}, new Operator[] {operator});
+			}
+		}
+	}
+
+	@Test
+	public void testChains() {
+		Random random = new Random(42);
+		Operator[] operators = Operator.values();
+		for (int i = 0; i < 10_000; i++) {
+			Number[] numbers = new Number[3];
+			for (int j = 0; j < numbers.length; j++) {
+				if (random.nextBoolean()) {
+					numbers[j] = NUMBERS[random.nextInt(NUMBERS.length)];
+				} else if (random.nextBoolean()) {
+					numbers[j] = (long) random.nextInt(2001) - 1000;
+				} else {
+					numbers[j] = (random.nextDouble() - 0.5) * 2000;
+				}
+			}
+			assertChain(numbers, new Operator[] {operators[random.nextInt(operators.length)], operators[random.nextInt(operators.length)]});
+		}
+	}
+
+	/**
+	 * Parses the chain of the given numbers and operators and checks that it is calculated without boxing,
+	 * with the same result as the registered number operations.
+	 */
+	private static void assertChain(Number[] numbers, Operator[] operators) {
+		Object[] chain = new Object[numbers.length + operators.length];
+		for (int i = 0; i < numbers.length; i++) {
+			chain[2 * i] = literal(numbers[i]);
+			if (i < operators.length)
+				chain[2 * i + 1] = operators[i];
+		}
+		ArithmeticGettable<?> gettable = ArithmeticChain.parse(Arrays.asList(chain));
+		String message = Arrays.toString(chain);
+		assertTrue(message, gettable instanceof NumericArithmeticChain);
+		assertEquals(message, calculate(numbers, operators), gettable.get(ContextlessEvent.get()));
+	}
+
+	private static Expression<Number> literal(Number number) {
+		return new SimpleLiteral<Number>(new Number[] {number}, Number.class, true) {
+			@Override
+			public String toString() {
+				return number + " (" + number.getClass().getSimpleName() + ")";
+			}
+		};
+	}
+
+	/**
+	 * Calculates the chain with the boxed operations, with the same precedence as {@link ArithmeticChain#parse(java.util.List)}.
+	 */
+	private static Number calculate(Number[] numbers, Operator[] operators) {
+		if (operators.length == 1)
+			return calculate(numbers[0], operators[0], numbers[1]);
+		// the loosest binding operator is calculated last, the right one if both bind equally
+		if (precedence(operators[1]) <= precedence(operators[0]))
+			return calculate(calculate(numbers[0], operators[0], numbers[1]), operators[1], numbers[2]);
+		return calculate(numbers[0], operators[0], calculate(numbers[1], operators[1], numbers[2]));
+	}
+
+	private static Number calculate(Number left, Operator operator, Number right) {
+		Operation<Number, Number, Number> operation = Arithmetics.getOperation(operator, Number.class, Number.class, Number.class);
+		assertTrue(operator.getName(), operation != null);
+		return operation.calculate(left, right);
+	}
+
+	private static int precedence(Operator operator) {
+		switch (operator) {
+			case ADDITION:
+			case SUBTRACTION:
+				return 0;
+			case MULTIPLICATION:
+			case DIVISION:
+				return 1;
+			default:
+				return 2;
+		}
+	}
+
+}
@@ -0,0 +1,138 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package org.skriptlang.skript.test.tests.lang;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.ScriptLoader;
+import ch.njol.skript.test.runner.SkriptJUnitTest;
+import ch.njol.skript.variables.Variables;
+import ch.njol.util.OpenCloseable;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+import org.bukkit.event.world.WorldInitEvent;
+import org.bukkit.event.world.WorldSaveEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.structure.Structure;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that reloading a script only replaces its changed triggers,
+ * and that the triggers of the script are still called in the order of the file.
+ */
+public class ReloadChangedStructuresTest extends SkriptJUnitTest {
+
+	private static final String VARIABLE = "-reload changed structures test";
+
+	private File file;
+
+	@Before
+	public void createScript() throws IOException {
+		file = new File(Skript.getInstance().getScriptsFolder(), "ReloadChangedStructuresTest.sk").getCanonicalFile();
+		write(
+			"on world save:",
+			"\tset {" + VARIABLE + "} to \"%{" + VARIABLE + "}%save 1,\"",
+			"on world save:",
+			"\tset {" + VARIABLE + "} to \"%{" + VARIABLE + "}%save 2,\"",
+			"on world init:",
+			"\tset {" + VARIABLE + "} to \"%{" + VARIABLE + "}%init 1,\""
+		);
+		ScriptLoader.loadScripts(file, OpenCloseable.EMPTY).join();
+	}
+
+	@Test
+	public void testChangedEvent() throws IOException {
+		Script script = ScriptLoader.getScript(file);
+		assertNotNull(script);
+		List<Structure> structures = new ArrayList<>(script.getStructures());
+		assertEquals(3, structures.size());
+
+		write(
+			"on world save:",
+			"\tset {" + VARIABLE + "} to \"%{" + VARIABLE + "}%save 1,\"",
+			"on world save:",
+			"\tset {" + VARIABLE + "} to \"%{" + VARIABLE + "}%save 2,\"",
+			"on world init:",
+			"\tset {" + VARIABLE + "} to \"%{" + VARIABLE + "}%init 2,\""
+		);
+		ScriptLoader.reloadScript(script, OpenCloseable.EMPTY).join();
+
+		assertSame("the script was reloaded completely", script, ScriptLoader.getScript(file));
+		assertEquals(3, script.getStructures().size());
+		assertTrue("the unchanged triggers were replaced", script.getStructures().contains(structures.get(0)));
+		assertTrue("the unchanged triggers were replaced", script.getStructures().contains(structures.get(1)));
+		assertFalse("the changed trigger was kept", script.getStructures().contains(structures.get(2)));
+
+		assertEquals("save 1,save 2,", call(new WorldSaveEvent(getTestWorld())));
+		assertEquals("init 2,", call(new WorldInitEvent(getTestWorld())));
+	}
+
+	@Test
+	public void testTriggerOrder() throws IOException {
+		Script script = ScriptLoader.getScript(file);
+		assertNotNull(script);
+
+		write(
+			"on world save:",
+			"\tset {" + VARIABLE + "} to \"%{" + VARIABLE + "}%save 3,\"",
+			"on world save:",
+			"\tset {" + VARIABLE + "} to \"%{" + VARIABLE + "}%save 2,\"",
+			"on world init:",
+			"\tset {" + VARIABLE + "} to \"%{" + VARIABLE + "}%init 1,\""
+		);
+		ScriptLoader.reloadScript(script, OpenCloseable.EMPTY).join();
+
+		assertEquals("save 3,save 2,", call(new WorldSaveEvent(getTestWorld())));
+		assertEquals("init 1,", call(new WorldInitEvent(getTestWorld())));
+	}
+
+	@After
+	public void deleteScript() throws IOException {
+		Script script = ScriptLoader.getScript(file);
+		if (script != null)
+			ScriptLoader.unloadScript(script);
+		Files.deleteIfExists(file.toPath());
+		Variables.setVariable(VARIABLE, null, null, false);
+	}
+
+	private void write(String... lines) throws IOException {
+		Files.write(file.toPath(), String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String call(Event event) {
+		Variables.setVariable(VARIABLE, "", null, false);
+		Bukkit.getPluginManager().callEvent(event);
+		return (String) Variables.getVariable(VARIABLE, null, false);
+	}
+
+}
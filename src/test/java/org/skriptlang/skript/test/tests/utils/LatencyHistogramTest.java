@@ -0,0 +1,64 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package org.skriptlang.skript.test.tests.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import ch.njol.skript.timings.LatencyHistogram;
+
+/**
+ * Test the bucket selection and percentiles of the LatencyHistogram class.
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void testBuckets() {
+		assertEquals(0, percentile(0));
+		assertEquals(0, percentile(-5));
+		assertEquals(1, percentile(1));
+		assertEquals(3, percentile(2));
+		assertEquals(3, percentile(3));
+		assertEquals(7, percentile(4));
+		assertEquals(1023, percentile(1000));
+		assertEquals(Long.MAX_VALUE, percentile(Long.MAX_VALUE));
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(0.5));
+
+		for (int micros = 1; micros <= 100; micros++)
+			histogram.record(micros * 1000L);
+		assertEquals(100, histogram.getCount());
+		assertEquals(5050 * 1000L, histogram.getTime());
+		assertEquals(1023, histogram.getPercentile(0));
+		assertEquals(65535, histogram.getPercentile(0.5));
+		assertEquals(131071, histogram.getPercentile(1));
+	}
+
+	private static long percentile(long nanos) {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(nanos);
+		return histogram.getPercentile(1);
+	}
+
+}
@@ -0,0 +1,84 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package org.skriptlang.skript.test.tests.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ch.njol.util.StringUtils;
+
+/**
+ * Test methods from the StringUtils class.
+ */
+public class StringUtilsTest {
+
+	/**
+	 * Testing method {@link StringUtils#toString(double, int)} against formatting with {@link String#format(String, Object...)}
+	 */
+	@Test
+	public void testToString() {
+		double[] numbers = {
+				0, -0.0, 0.5, -1.5, 0.001, -0.001, 0.0005, 0.00099, 1e-3, 1e7, 1.005, 0.125, 2.675,
+				9.995, 99.995, 999999.995, 9999999.5, 123456.789, 1e300, Double.MIN_VALUE,
+				Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY
+		};
+		for (double number : numbers) {
+			for (int accuracy = 0; accuracy <= 6; accuracy++)
+				assertEquals(number + " (accuracy " + accuracy + ")", format(number, accuracy), StringUtils.toString(number, accuracy));
+		}
+
+		Random random = new Random(42);
+		for (int i = 0; i < 100_000; i++) {
+			double number;
+			switch (i % 3) {
+				case 0:
+					number = Double.longBitsToDouble(random.nextLong());
+					break;
+				case 1:
+					number = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4);
+					break;
+				default:
+					number = (random.nextInt(2_000_000) - 1_000_000) / 1000.0 + 0.0005 * (random.nextInt(3) - 1);
+					break;
+			}
+			int accuracy = random.nextInt(7);
+			assertEquals(number + " (accuracy " + accuracy + ")", format(number, accuracy), StringUtils.toString(number, accuracy));
+		}
+	}
+
+	/**
+	 * The formatting {@link StringUtils#toString(double, int)} is expected to be identical to.
+	 */
+	private static String format(double number, int accuracy) {
+		if (accuracy <= 0)
+			return "" + Math.round(number);
+		String string = String.format(Locale.ENGLISH, "%." + accuracy + "f", number);
+		int end = string.length() - 1;
+		while (string.charAt(end) == '0')
+			end--;
+		if (string.charAt(end) == '.')
+			end--;
+		return string.substring(0, end + 1);
+	}
+
+}